@@ -1,34 +1,62 @@
 package ru.practicum.shareit.booking.api.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
 import ru.practicum.shareit.booking.api.dto.BookingState;
+import ru.practicum.shareit.client.AsyncExchange;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.exception.RentalPeriodException;
 import ru.practicum.shareit.valid.ValidPageable;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory serverRequestFactory,
+                         ObjectProvider<AsyncExchange> async,
+                         ObjectProvider<SingleFlight> singleFlight,
+                         @Value("${shareit-server.pass-through.enabled:false}") boolean passThrough) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async.getIfAvailable(),
+                singleFlight.getIfAvailable(),
+                passThrough);
     }
 
-    public ResponseEntity<Object> create(long userId, BookingSimpleDto bookingSimpleDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, BookingSimpleDto bookingSimpleDto) {
+        checkRentalPeriod(bookingSimpleDto);
+
+        return post("", userId, bookingSimpleDto);
+    }
+
+    /**
+     * The whole batch is refused if any entry has a wrong rental period.
+     */
+    public CompletableFuture<ResponseEntity<Object>> createAll(long userId, List<BookingSimpleDto> bookingSimpleDtos) {
+        bookingSimpleDtos.forEach(BookingClient::checkRentalPeriod);
+
+        return post("/batch", userId, bookingSimpleDtos);
+    }
+
+    private static void checkRentalPeriod(BookingSimpleDto bookingSimpleDto) {
         LocalDateTime start = bookingSimpleDto.getStart();
         LocalDateTime end = bookingSimpleDto.getEnd();
         if (start.equals(end)) {
@@ -41,43 +69,59 @@ public class BookingClient extends BaseClient {
                     + " after its termination";
             throw new RentalPeriodException(error);
         }
-
-        return post("", userId, bookingSimpleDto);
     }
 
-    public ResponseEntity<Object> update(long userId, long bookingId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved);
 
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getById(long userId, long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> updateAll(long userId, List<Long> bookingIds, boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved);
+
+        return patch("/batch?approved={approved}", userId, parameters, bookingIds);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByUser(long userId, String stateIn, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllByUser(long userId, String stateIn, Integer from, Integer size, String cursor) {
         ValidPageable.check(from, size);
         BookingState state = BookingState.from(stateIn);
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
+        Map<String, Object> parameters = getListParameters(state, from, size, cursor);
 
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}" + cursorTemplate(cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByOwner(long userId, String stateIn, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllByOwner(long userId, String stateIn, Integer from, Integer size, String cursor) {
         ValidPageable.check(from, size);
         BookingState state = BookingState.from(stateIn);
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = getListParameters(state, from, size, cursor);
+
+        return get("/owner?state={state}&from={from}&size={size}" + cursorTemplate(cursor), userId, parameters);
+    }
+
+    private static Map<String, Object> getListParameters(BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
 
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return parameters;
     }
 
+    /**
+     * The keyset cursor is passed through to the server as is.
+     */
+    private static String cursorTemplate(String cursor) {
+        return cursor == null ? "" : "&cursor={cursor}";
+    }
 }
@@ -16,8 +16,13 @@ import ru.practicum.shareit.booking.api.client.BookingClient;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
@@ -26,7 +31,9 @@ import static ru.practicum.shareit.constants.Constants.SIZE;
 /**
  * <h3>Booking Controller</h3>
  * {@link #createBooking} Создание бронирования <br/>
+ * {@link #createBookings} Создание нескольких бронирований, не больше {@link #BATCH_SIZE_MAX} <br/>
  * {@link #updateStatusBooking} Изменить статус бронирования <br/>
+ * {@link #updateStatusBookings} Изменить статус нескольких бронирований <br/>
  * {@link #getBooking}    Посмотреть бронирование <br/>
  * {@link #getAllBookingsForUser}  Посмотреть бронирования от имени пользователя <br/>
  * {@link #getAllBookingsForOwner} Посмотреть бронирования от имени владельца предмета <br/>
@@ -36,15 +43,18 @@ import static ru.practicum.shareit.constants.Constants.SIZE;
 @Validated
 @Slf4j
 public class BookingController {
+    private static final int BATCH_SIZE_MAX = 100;
     private final String createBooking = "/bookings";
+    private final String createBookings = "/bookings/batch";
     private final String updateStatusBooking = "/bookings/{id}";
+    private final String updateStatusBookings = "/bookings/batch";
     private final String getBooking = "/bookings/{id}";
     private final String getAllBookingsForUser = "/bookings";
     private final String getAllBookingsForOwner = "/bookings/owner";
     private final BookingClient bookingClient;
 
     @PostMapping(createBooking)
-    public ResponseEntity<Object> create(
+    public CompletableFuture<ResponseEntity<Object>> create(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @Valid @RequestBody BookingSimpleDto bookingSimpleDto) {
         log.debug("POST {} - userId:{} - DTO:{}", createBooking, userId, bookingSimpleDto);
@@ -52,8 +62,18 @@ public class BookingController {
         return bookingClient.create(userId, bookingSimpleDto);
     }
 
+    @PostMapping(createBookings)
+    public CompletableFuture<ResponseEntity<Object>> createAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestBody @NotEmpty @Size(max = BATCH_SIZE_MAX)
+            List<@Valid BookingSimpleDto> bookingSimpleDtos) {
+        log.debug("POST {} - userId:{} - size:{}", createBookings, userId, bookingSimpleDtos.size());
+
+        return bookingClient.createAll(userId, bookingSimpleDtos);
+    }
+
     @PatchMapping(updateStatusBooking)
-    public ResponseEntity<Object> update(
+    public CompletableFuture<ResponseEntity<Object>> update(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @PathVariable Long id,
             @RequestParam boolean approved) {
@@ -63,8 +83,20 @@ public class BookingController {
         return bookingClient.update(userId, id, approved);
     }
 
+    @PatchMapping(updateStatusBookings)
+    public CompletableFuture<ResponseEntity<Object>> updateAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestBody @NotEmpty @Size(max = BATCH_SIZE_MAX)
+            List<@NotNull Long> bookingIds,
+            @RequestParam boolean approved) {
+        log.debug("PATCH {} - userId:{} - bookingIds:{} - approved:{}",
+                updateStatusBookings, userId, bookingIds, approved);
+
+        return bookingClient.updateAll(userId, bookingIds, approved);
+    }
+
     @GetMapping(getBooking)
-    public ResponseEntity<Object> get(
+    public CompletableFuture<ResponseEntity<Object>> get(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @PathVariable Long id) {
         log.debug("GET {} - userId:{} - bookingId:{}", getBooking, userId, id);
@@ -73,30 +105,32 @@ public class BookingController {
     }
 
     @GetMapping(getAllBookingsForUser)
-    public ResponseEntity<Object> getAllByUser(
+    public CompletableFuture<ResponseEntity<Object>> getAllByUser(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestParam(required = false, defaultValue = FROM)
             @PositiveOrZero Integer from,
             @RequestParam(required = false, defaultValue = SIZE)
-            @Positive Integer size) {
-        log.debug("GET {} - userId:{} - state:{} - from:{} - size:{}",
-                getAllBookingsForUser, userId, state, from, size);
+            @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("GET {} - userId:{} - state:{} - from:{} - size:{} - cursor:{}",
+                getAllBookingsForUser, userId, state, from, size, cursor);
 
-        return bookingClient.getAllByUser(userId, state, from, size);
+        return bookingClient.getAllByUser(userId, state, from, size, cursor);
     }
 
     @GetMapping(getAllBookingsForOwner)
-    public ResponseEntity<Object> getAllByOwner(
+    public CompletableFuture<ResponseEntity<Object>> getAllByOwner(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @RequestParam(required = false, defaultValue = "ALL") String state,
             @RequestParam(required = false, defaultValue = FROM)
             @PositiveOrZero Integer from,
             @RequestParam(required = false, defaultValue = SIZE)
-            @Positive Integer size) {
-        log.debug("GET {} - userId:{} - state:{} - from:{} - size:{}",
-                getAllBookingsForOwner, userId, state, from, size);
+            @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("GET {} - userId:{} - state:{} - from:{} - size:{} - cursor:{}",
+                getAllBookingsForOwner, userId, state, from, size, cursor);
 
-        return bookingClient.getAllByOwner(userId, state, from, size);
+        return bookingClient.getAllByOwner(userId, state, from, size, cursor);
     }
 }
\ No newline at end of file
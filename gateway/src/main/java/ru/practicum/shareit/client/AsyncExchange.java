@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.ServerHttpClientProperties;
+import ru.practicum.shareit.config.VirtualThreads;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking exchange with the server, {@code shareit-server.async.enabled=true}.
+ * <p>
+ * The request is sent by {@link HttpClient#sendAsync}: no servlet thread waits for the server,
+ * the controller returns the future and the response is written when it completes. <br/>
+ * The response is the same as the one of {@link org.springframework.web.client.RestTemplate}:
+ * a successful body is read as JSON, an error body is passed through as bytes,
+ * or every body is passed through as bytes in the zero-parse mode. <br/>
+ * Every body is read whole into a {@code byte[]} before the future completes, see {@link BaseClient}. <br/>
+ * The JDK client keeps its own connections: only {@code connect-timeout} and {@code socket-timeout}
+ * of {@link ServerHttpClientProperties} apply. <br/>
+ * The responses complete on virtual threads with {@code shareit.virtual-threads.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.async.enabled", havingValue = "true")
+public class AsyncExchange {
+    private static final Set<String> NOT_PASSED = Set.of(
+            "connection", "content-length", "keep-alive", "transfer-encoding");
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public AsyncExchange(ObjectMapper objectMapper,
+                         ServerHttpClientProperties properties,
+                         @Value("${shareit.virtual-threads.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.timeout = properties.getSocketTimeout();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout());
+        if (virtualThreads) {
+            builder.executor(VirtualThreads.newExecutor());
+        }
+        this.httpClient = builder.build();
+    }
+
+    /**
+     * @param passThrough The body is passed through as bytes with {@link BaseClient#PASSED_HEADERS}
+     */
+    public CompletableFuture<ResponseEntity<Object>> exchange(
+            HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body, boolean passThrough) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .method(method.name(), bodyPublisher(body));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> toResponseEntity(response, passThrough));
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(@Nullable Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The status is passed as a number: the server may answer with one {@link org.springframework.http.HttpStatus} does not know.
+     */
+    private ResponseEntity<Object> toResponseEntity(HttpResponse<byte[]> response, boolean passThrough) {
+        int status = response.statusCode();
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach((name, values) -> {
+            if (!NOT_PASSED.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        byte[] body = response.body();
+
+        if (passThrough) {
+            ResponseEntity<Object> passed = ResponseEntity.status(status)
+                    .headers(BaseClient.passedHeaders(headers))
+                    .body(body.length == 0 ? null : body);
+            return status >= 400 ? passed : BaseClient.prepareGatewayResponse(passed);
+        }
+        if (body.length == 0) {
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+        if (status / 100 != 2) {
+            return ResponseEntity.status(status).body(body);
+        }
+        try {
+            return ResponseEntity.status(status).headers(headers).body(objectMapper.readValue(body, Object.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -6,95 +6,171 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static ru.practicum.shareit.constants.Constants.HEADER_NEXT_CURSOR;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 
+/**
+ * Proxy to the server.
+ * <p>
+ * Blocking by default: the request is sent by {@link RestTemplate} on the servlet thread
+ * and the future is already completed. <br/>
+ * Non-blocking with {@link AsyncExchange}, {@code shareit-server.async.enabled=true}:
+ * the servlet thread is released until the server responds. <br/>
+ * The URI is expanded by the {@link RestTemplate} in both modes.
+ * <p>
+ * The body of the server is read as JSON and written again by default. <br/>
+ * Zero-parse with {@code shareit-server.pass-through.enabled=true}: the body is passed through as bytes
+ * with the {@link #PASSED_HEADERS}, the statuses are mapped the same way. <br/>
+ * The body is not streamed: it is read whole into a {@code byte[]} in both modes, so the memory per request
+ * is still the size of the body, only the parse and the write of JSON are skipped.
+ * A merged GET of {@link SingleFlight} gives the same body to every waiter, which a stream could not.
+ * <p>
+ * Identical concurrent GETs are sent once with {@link SingleFlight},
+ * {@code shareit-server.single-flight.enabled=true}.
+ */
 public class BaseClient {
+    static final List<String> PASSED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HEADER_NEXT_CURSOR);
     protected final RestTemplate rest;
+    @Nullable
+    private final AsyncExchange async;
+    @Nullable
+    private final SingleFlight singleFlight;
+    private final boolean passThrough;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null, false);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable AsyncExchange async, @Nullable SingleFlight singleFlight,
+                      boolean passThrough) {
         this.rest = rest;
+        this.async = async;
+        this.singleFlight = singleFlight;
+        this.passThrough = passThrough;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (singleFlight != null) {
+            return singleFlight.get(new SingleFlight.Key(path, parameters, userId),
+                    () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+        }
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, Long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, Long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (async != null) {
+            URI uri = parameters != null
+                    ? rest.getUriTemplateHandler().expand(path, parameters)
+                    : rest.getUriTemplateHandler().expand(path);
+            return async.exchange(method, uri, defaultHeaders(userId), body, passThrough);
+        }
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        return CompletableFuture.completedFuture(exchange(method, path, parameters, requestEntity));
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity) {
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            if (passThrough) {
+                ResponseEntity<byte[]> shareitServerResponse = send(method, path, parameters, requestEntity, byte[].class);
+                return prepareGatewayResponse(ResponseEntity.status(shareitServerResponse.getStatusCodeValue())
+                        .headers(passedHeaders(shareitServerResponse.getHeaders()))
+                        .body(shareitServerResponse.getBody()));
+            }
+            return prepareGatewayResponse(send(method, path, parameters, requestEntity, Object.class));
+        } catch (RestClientResponseException e) {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(e.getRawStatusCode());
+            if (passThrough && e.getResponseHeaders() != null) {
+                responseBuilder.headers(passedHeaders(e.getResponseHeaders()));
+            }
+            return responseBuilder.body(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    private <T, R> ResponseEntity<R> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity, Class<R> responseType) {
+        if (parameters != null) {
+            return rest.exchange(path, method, requestEntity, responseType, parameters);
+        }
+        return rest.exchange(path, method, requestEntity, responseType);
+    }
+
+    /**
+     * @param headers Headers of the server response
+     * @return Only {@link #PASSED_HEADERS}
+     */
+    static HttpHeaders passedHeaders(HttpHeaders headers) {
+        HttpHeaders passed = new HttpHeaders();
+        for (String name : PASSED_HEADERS) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                passed.addAll(name, values);
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return passed;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -107,12 +183,12 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
+    static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCodeValue() / 100 == 2) {
             return response;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCodeValue());
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
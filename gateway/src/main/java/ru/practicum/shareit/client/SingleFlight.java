@@ -0,0 +1,89 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Merges identical concurrent GETs, {@code shareit-server.single-flight.enabled=true}.
+ * <p>
+ * The first GET of a {@link Key} is sent to the server, the same GETs arriving before it completes
+ * get its response instead of sending their own. A GET after the completion is sent again:
+ * nothing is cached. <br/>
+ * The responses depend on the user, so the user is a part of the key.
+ * <p>
+ * Metrics: <br/>
+ * {@code gateway.single-flight.requests} with {@code result=sent} GETs sent to the server,
+ * {@code result=merged} GETs given the response of another one <br/>
+ * {@code gateway.single-flight.in-flight} GETs sent and not completed
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.single-flight.enabled", havingValue = "true")
+public class SingleFlight {
+    private final Map<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter merged;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.sent = meterRegistry.counter("gateway.single-flight.requests", "result", "sent");
+        this.merged = meterRegistry.counter("gateway.single-flight.requests", "result", "merged");
+        meterRegistry.gaugeMapSize("gateway.single-flight.in-flight", Tags.empty(), inFlight);
+    }
+
+    /**
+     * @param key     GET
+     * @param request Sends the GET, called only if there is no same GET in flight
+     * @return Response of this or of the same GET in flight, must not be changed
+     */
+    public CompletableFuture<ResponseEntity<Object>> get(Key key, Supplier<CompletableFuture<ResponseEntity<Object>>> request) {
+        CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> same = inFlight.putIfAbsent(key, response);
+        if (same != null) {
+            merged.increment();
+            return same;
+        }
+        sent.increment();
+        try {
+            request.get().whenComplete((result, error) -> {
+                inFlight.remove(key, response);
+                if (error != null) {
+                    response.completeExceptionally(error);
+                } else {
+                    response.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, response);
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    /**
+     * {@code path} Path template <br/>
+     * {@code parameters} Values of the template <br/>
+     * {@code userId} {@code X-Sharer-User-Id}
+     */
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static final class Key {
+        private final String path;
+        @Nullable
+        private final Map<String, Object> parameters;
+        @Nullable
+        private final Long userId;
+    }
+}
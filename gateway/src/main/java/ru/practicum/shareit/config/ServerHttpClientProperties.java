@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Pool of connections to the server, {@code shareit-server.http.*}.
+ * <p>
+ * {@code max-total} Connections to all routes <br/>
+ * {@code max-per-route} Connections to one route; every client goes to the same server,
+ * so this is the limit of concurrent server requests <br/>
+ * {@code connect-timeout} Time to open a connection <br/>
+ * {@code connection-request-timeout} Time to wait for a connection of a full pool <br/>
+ * {@code socket-timeout} Time to wait for the server response <br/>
+ * {@code keep-alive} Time to keep an idle connection when the server does not say <br/>
+ * {@code idle-timeout} Idle connections are closed after it <br/>
+ * {@code validate-after-inactivity} An idle connection is checked before reuse after it <br/>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpClientProperties {
+    private int maxTotal = 50;
+    private int maxPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
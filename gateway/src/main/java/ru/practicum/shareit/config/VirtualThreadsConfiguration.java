@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Profile {@code virtual-threads}, {@code shareit.virtual-threads.enabled=true}:
+ * Tomcat handles every request on a new virtual thread instead of its pool,
+ * a request blocked in {@link org.springframework.web.client.RestTemplate} does not hold a platform thread.
+ * Needs Java 21 at runtime.
+ * <p>
+ * The responses of {@link ru.practicum.shareit.client.AsyncExchange} complete on virtual threads too.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(VirtualThreads.newExecutor());
+            log.info("[i] Requests are handled on virtual threads");
+        };
+    }
+}
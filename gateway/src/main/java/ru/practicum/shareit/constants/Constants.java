@@ -7,10 +7,12 @@ package ru.practicum.shareit.constants;
  * {@link #SIZE} Константа pageable <br/>
  * <h2>Headers</h2>
  * {@link #HEADER_USER_ID} Имя заголовка для userId <br/>
+ * {@link #HEADER_NEXT_CURSOR} Имя заголовка для следующей страницы <br/>
  */
 public interface Constants {
     String FROM = "0";
     String SIZE = "10";
 
     String HEADER_USER_ID = "X-Sharer-User-Id";
+    String HEADER_NEXT_CURSOR = "X-Next-Cursor";
 }
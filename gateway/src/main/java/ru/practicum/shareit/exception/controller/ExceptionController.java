@@ -12,6 +12,7 @@ import ru.practicum.shareit.exception.RentalPeriodException;
 import ru.practicum.shareit.exception.StateException;
 import ru.practicum.shareit.exception.entity.ErrorException;
 
+import javax.validation.ConstraintViolationException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
@@ -64,4 +65,16 @@ public class ExceptionController {
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorException(400, message));
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public ResponseEntity<?> handleConstraintViolationException(ConstraintViolationException e) {
+        String message = e.getMessage();
+
+        logError(message, e);
+
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorException(400, message));
+    }
 }
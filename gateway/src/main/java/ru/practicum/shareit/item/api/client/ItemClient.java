@@ -1,21 +1,27 @@
 package ru.practicum.shareit.item.api.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncExchange;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
+import ru.practicum.shareit.item.api.dto.ItemSearchSort;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
 import ru.practicum.shareit.valid.ValidPageable;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -23,26 +29,33 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory,
+                      ObjectProvider<AsyncExchange> async,
+                      ObjectProvider<SingleFlight> singleFlight,
+                      @Value("${shareit-server.pass-through.enabled:false}") boolean passThrough) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async.getIfAvailable(),
+                singleFlight.getIfAvailable(),
+                passThrough);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemSimpleDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, ItemSimpleDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(long userId, ItemDto itemDto, long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, ItemDto itemDto, long itemId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> get(long userId, long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> get(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(long userId, Integer from, Integer size) {
         ValidPageable.check(from, size);
         Map<String, Object> parameters = Map.of(
                 "from", from,
@@ -51,20 +64,37 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> search(long userId, String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> search(long userId, String text, Integer from, Integer size, String sortIn) {
         ValidPageable.check(from, size);
+        ItemSearchSort sort = ItemSearchSort.from(sortIn);
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
-                "size", size);
+                "size", size,
+                "sort", sort.name());
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}&sort={sort}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(long userId, Long itemId, @Valid CommentSimpleDto commentSimpleDto) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(long userId, Long itemId, @Valid CommentSimpleDto commentSimpleDto) {
         commentSimpleDto.setItemId(itemId);
         commentSimpleDto.setAuthorId(userId);
         commentSimpleDto.setCreated(LocalDateTime.now());
         return post("/" + itemId + "/comment", userId, commentSimpleDto);
     }
+
+    /**
+     * The keyset cursor is passed through to the server as is.
+     */
+    public CompletableFuture<ResponseEntity<Object>> getComments(long userId, Long itemId, Integer size, String cursor) {
+        ValidPageable.check(0, size);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+
+        return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId, parameters);
+    }
 }
@@ -21,6 +21,7 @@ import ru.practicum.shareit.valid.group.Update;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
@@ -31,9 +32,10 @@ import static ru.practicum.shareit.constants.Constants.SIZE;
  * {@link #createItem} Создать предмет <br/>
  * {@link #updateItem} Изменить предмет <br/>
  * {@link #getItem} Посмотреть предмет <br/>
- * {@link #searchItem} Поиск предмета <br/>
+ * {@link #searchItem} Поиск предмета, {@code sort=relevance} - по релевантности <br/>
  * {@link #getAllItems} Посмотреть все предметы <br/>
  * {@link #createComment} Оставить комментарий для предмета <br/>
+ * {@link #getComments} Посмотреть комментарии предмета, постранично по {@code X-Next-Cursor} <br/>
  */
 @RestController
 @RequiredArgsConstructor
@@ -45,11 +47,12 @@ public class ItemController {
     private final String searchItem = "/items/search";
     private final String getAllItems = "/items";
     private final String createComment = "/items/{id}/comment";
+    private final String getComments = "/items/{id}/comments";
     private final ItemClient itemClient;
 
 
     @PostMapping(createItem)
-    public ResponseEntity<Object> create(
+    public CompletableFuture<ResponseEntity<Object>> create(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @Validated(Create.class) @RequestBody ItemSimpleDto itemDto) {
 
@@ -57,7 +60,7 @@ public class ItemController {
     }
 
     @PatchMapping(updateItem)
-    public ResponseEntity<Object> update(
+    public CompletableFuture<ResponseEntity<Object>> update(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @Validated(Update.class) @RequestBody ItemDto itemDto,
             @PathVariable long id) {
@@ -66,7 +69,7 @@ public class ItemController {
     }
 
     @GetMapping(getItem)
-    public ResponseEntity<Object> get(
+    public CompletableFuture<ResponseEntity<Object>> get(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @PathVariable long id) {
 
@@ -74,19 +77,20 @@ public class ItemController {
     }
 
     @GetMapping(searchItem)
-    public ResponseEntity<Object> search(
+    public CompletableFuture<ResponseEntity<Object>> search(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @RequestParam String text,
             @RequestParam(required = false, defaultValue = FROM)
             @PositiveOrZero Integer from,
             @RequestParam(required = false, defaultValue = SIZE)
-            @Positive Integer size) {
+            @Positive Integer size,
+            @RequestParam(required = false, defaultValue = "id") String sort) {
 
-        return itemClient.search(userId, text, from, size);
+        return itemClient.search(userId, text, from, size, sort);
     }
 
     @GetMapping(getAllItems)
-    public ResponseEntity<Object> getAll(
+    public CompletableFuture<ResponseEntity<Object>> getAll(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @RequestParam(required = false, defaultValue = FROM)
             @PositiveOrZero Integer from,
@@ -97,11 +101,22 @@ public class ItemController {
     }
 
     @PostMapping(createComment)
-    public ResponseEntity<Object> addComment(
+    public CompletableFuture<ResponseEntity<Object>> addComment(
             @RequestHeader(HEADER_USER_ID) Long userId,
             @PathVariable Long id,
             @Valid @RequestBody CommentSimpleDto commentSimpleDto) {
 
         return itemClient.createComment(userId, id, commentSimpleDto);
     }
-}
\ No newline at end of file
+
+    @GetMapping(getComments)
+    public CompletableFuture<ResponseEntity<Object>> getComments(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @PathVariable Long id,
+            @RequestParam(required = false, defaultValue = SIZE)
+            @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+
+        return itemClient.getComments(userId, id, size, cursor);
+    }
+}
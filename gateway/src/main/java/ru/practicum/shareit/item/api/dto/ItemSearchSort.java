@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.api.dto;
+
+import ru.practicum.shareit.exception.BadRequestException;
+
+/**
+ * Порядок результатов поиска:
+ * <ul>
+ *     <li>ID - предметы, содержащие текст, по ID</li>
+ *     <li>RELEVANCE - предметы, похожие на любое слово текста (в том числе с опечатками),
+ *     по релевантности; совпадение в названии важнее, чем в описании</li>
+ * </ul>
+ */
+public enum ItemSearchSort {
+    ID,
+    RELEVANCE;
+
+    public static ItemSearchSort from(String stringSort) {
+        for (ItemSearchSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(stringSort)) {
+                return sort;
+            }
+        }
+        throw new BadRequestException("Unknown sort: " + stringSort);
+    }
+}
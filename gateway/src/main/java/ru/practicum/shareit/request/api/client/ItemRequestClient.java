@@ -1,17 +1,21 @@
 package ru.practicum.shareit.request.api.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncExchange;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.request.api.dto.ItemRequestSimpleDto;
 import ru.practicum.shareit.valid.ValidPageable;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
@@ -19,22 +23,29 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory serverRequestFactory,
+                             ObjectProvider<AsyncExchange> async,
+                             ObjectProvider<SingleFlight> singleFlight,
+                             @Value("${shareit-server.pass-through.enabled:false}") boolean passThrough) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async.getIfAvailable(),
+                singleFlight.getIfAvailable(),
+                passThrough);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemRequestSimpleDto itemRequestCreateDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, ItemRequestSimpleDto itemRequestCreateDto) {
         return post("", userId, itemRequestCreateDto);
     }
 
-    public ResponseEntity<Object> getByRequesterId(long requesterId) {
+    public CompletableFuture<ResponseEntity<Object>> getByRequesterId(long requesterId) {
         return get("", requesterId);
     }
 
-    public ResponseEntity<Object> getAll(long requesterId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(long requesterId, int from, int size) {
         ValidPageable.check(from, size);
         Map<String, Object> parameters = Map.of(
                 "from", from,
@@ -43,7 +54,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all", requesterId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long requesterId, long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(long requesterId, long requestId) {
         return get("/" + requestId, requesterId);
     }
 }
@@ -17,6 +17,7 @@ import ru.practicum.shareit.valid.group.Create;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
@@ -40,7 +41,7 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping(createRequest)
-    public ResponseEntity<Object> create(
+    public CompletableFuture<ResponseEntity<Object>> create(
             @RequestHeader(HEADER_USER_ID) Long requesterId,
             @RequestBody
             @Validated(Create.class) ItemRequestSimpleDto itemRequestSimpleDto) {
@@ -49,7 +50,7 @@ public class ItemRequestController {
     }
 
     @GetMapping(getByRequester)
-    public ResponseEntity<Object> getByRequesterId(
+    public CompletableFuture<ResponseEntity<Object>> getByRequesterId(
             @RequestHeader(HEADER_USER_ID) Long requesterId) {
 
         return itemRequestClient.getByRequesterId(requesterId);
@@ -57,7 +58,7 @@ public class ItemRequestController {
 
     @GetMapping(getAllRequests)
     @Validated
-    public ResponseEntity<Object> getAll(
+    public CompletableFuture<ResponseEntity<Object>> getAll(
             @RequestHeader(HEADER_USER_ID) Long requesterId,
             @RequestParam(required = false, defaultValue = FROM)
             @PositiveOrZero int from,
@@ -68,7 +69,7 @@ public class ItemRequestController {
     }
 
     @GetMapping(getRequest)
-    public ResponseEntity<Object> getById(
+    public CompletableFuture<ResponseEntity<Object>> getById(
             @RequestHeader(HEADER_USER_ID) Long requesterId,
             @PathVariable long id) {
 
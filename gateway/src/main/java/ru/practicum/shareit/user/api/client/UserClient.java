@@ -1,17 +1,21 @@
 package ru.practicum.shareit.user.api.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncExchange;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.user.api.dto.UserDto;
 import ru.practicum.shareit.user.api.dto.UserSimpleDto;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
@@ -19,30 +23,37 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory,
+                      ObjectProvider<AsyncExchange> async,
+                      ObjectProvider<SingleFlight> singleFlight,
+                      @Value("${shareit-server.pass-through.enabled:false}") boolean passThrough) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async.getIfAvailable(),
+                singleFlight.getIfAvailable(),
+                passThrough);
     }
 
-    public ResponseEntity<Object> create(@Valid UserSimpleDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Valid UserSimpleDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(long userId, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getById(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public void delete(long userId) {
-        delete("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> delete(long userId) {
+        return delete("/" + userId);
     }
 }
@@ -18,6 +18,7 @@ import ru.practicum.shareit.valid.group.Create;
 import ru.practicum.shareit.valid.group.Update;
 
 import javax.validation.constraints.Positive;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <h3>User Controller</h3>
@@ -40,7 +41,7 @@ public class UserController {
 
 
     @PostMapping(createUser)
-    public ResponseEntity<Object> create(
+    public CompletableFuture<ResponseEntity<Object>> create(
             @RequestBody @Validated(Create.class) UserSimpleDto userDto) {
         log.info("[i] create user {}", userDto);
 
@@ -48,7 +49,7 @@ public class UserController {
     }
 
     @PatchMapping(updateUser)
-    public ResponseEntity<Object> update(
+    public CompletableFuture<ResponseEntity<Object>> update(
             @PathVariable @Positive Long id,
             @RequestBody @Validated(Update.class) UserDto userDto) {
         log.info("[i] update user {}", userDto);
@@ -58,7 +59,7 @@ public class UserController {
 
     @GetMapping(getUser)
     @Validated
-    public ResponseEntity<Object> getUsersById(
+    public CompletableFuture<ResponseEntity<Object>> getUsersById(
             @PathVariable Long id) {
         log.info("[i] get user {}", id);
 
@@ -66,7 +67,7 @@ public class UserController {
     }
 
     @GetMapping(getAllUsers)
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         log.info("[i] get users");
 
         return userClient.getAll();
@@ -74,10 +75,12 @@ public class UserController {
 
     @DeleteMapping(deleteUser)
     @Validated
-    public void deleteUser(
+    public CompletableFuture<Void> deleteUser(
             @PathVariable Long id) {
         log.info("[i] delete user {}", id);
-        userClient.delete(id);
+
+        return userClient.delete(id)
+                .thenAccept(response -> log.info("[i] deleted user {} - {}", id, response.getStatusCodeValue()));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.config.ServerHttpClientProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.constants.Constants.HEADER_NEXT_CURSOR;
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+class AsyncExchangeTest {
+    private static final String ITEM = "{ \"id\": 1, \"name\": \"Дрель\" }";
+    private static final String ERROR = "{\"error\":\"Item 1 not found\"}";
+    private final AsyncExchange async = new AsyncExchange(new ObjectMapper(), new ServerHttpClientProperties(), false);
+    private HttpServer server;
+    private String receivedUserId;
+    private String receivedBody;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/items/1", exchange -> {
+            receivedUserId = exchange.getRequestHeaders().getFirst(HEADER_USER_ID);
+            receivedBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.getResponseHeaders().set(HEADER_NEXT_CURSOR, "cursor");
+            exchange.getResponseHeaders().set("X-Internal", "secret");
+            respond(exchange, 200, ITEM);
+        });
+        server.createContext("/items/2", exchange -> respond(exchange, 404, ERROR));
+        server.createContext("/items/3", exchange -> respond(exchange, 499, ERROR));
+        server.createContext("/items/4", exchange -> respond(exchange, 204, ""));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HEADER_USER_ID, "2");
+        return headers;
+    }
+
+    @Test
+    void exchange_relaysStatusAndJsonBody() {
+        ResponseEntity<Object> response = async.exchange(HttpMethod.PATCH, uri("/items/1"), headers(),
+                Map.of("name", "Дрель"), false).join();
+
+        assertEquals("2", receivedUserId);
+        assertEquals("{\"name\":\"Дрель\"}", receivedBody);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("id", 1, "name", "Дрель"), response.getBody());
+        assertEquals("cursor", response.getHeaders().getFirst(HEADER_NEXT_CURSOR));
+    }
+
+    @Test
+    void exchange_whenPassThrough_relaysBytesAndPassedHeaders() {
+        ResponseEntity<Object> response = async.exchange(HttpMethod.GET, uri("/items/1"), headers(), null, true)
+                .join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(ITEM.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals("cursor", response.getHeaders().getFirst(HEADER_NEXT_CURSOR));
+        assertNull(response.getHeaders().get("X-Internal"));
+    }
+
+    @Test
+    void exchange_whenServerError_relaysStatusAndBody() {
+        ResponseEntity<Object> response = async.exchange(HttpMethod.GET, uri("/items/2"), headers(), null, false)
+                .join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void exchange_whenUnknownStatus_relaysIt() {
+        ResponseEntity<Object> plain = async.exchange(HttpMethod.GET, uri("/items/3"), headers(), null, false)
+                .join();
+        ResponseEntity<Object> passed = async.exchange(HttpMethod.GET, uri("/items/3"), headers(), null, true)
+                .join();
+
+        assertEquals(499, plain.getStatusCodeValue());
+        assertEquals(499, passed.getStatusCodeValue());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), (byte[]) passed.getBody());
+    }
+
+    @Test
+    void exchange_whenNoBody_relaysStatus() {
+        ResponseEntity<Object> response = async.exchange(HttpMethod.DELETE, uri("/items/4"), headers(), null, false)
+                .join();
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void exchange_whenServerDown_completesExceptionally() {
+        URI down = uri("/items/1");
+        server.stop(0);
+
+        assertThrows(CompletionException.class,
+                () -> async.exchange(HttpMethod.GET, down, headers(), null, false).join());
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withRawStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.constants.Constants.HEADER_NEXT_CURSOR;
+import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
+
+class BaseClientTest {
+    private static final String ERROR = "{\"error\":\"Item 1 not found\"}";
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"))
+                .build();
+        server = MockRestServiceServer.bindTo(rest).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void get_relaysStatusAndBody() {
+        BaseClient client = new BaseClient(rest);
+        server.expect(requestTo("http://server/items/1?text=drill"))
+                .andExpect(method(GET))
+                .andExpect(header(HEADER_USER_ID, "2"))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"Дрель\"}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.get("/{id}?text={text}", 2L, Map.of("id", 1, "text", "drill"))
+                .join();
+
+        server.verify();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("id", 1, "name", "Дрель"), response.getBody());
+    }
+
+    @Test
+    void post_sendsBodyAndRelaysCreated() {
+        BaseClient client = new BaseClient(rest);
+        server.expect(requestTo("http://server/items"))
+                .andExpect(method(POST))
+                .andExpect(content().json("{\"name\":\"Дрель\"}"))
+                .andRespond(withStatus(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"id\":1}"));
+
+        ResponseEntity<Object> response = client.post("", 2L, Map.of("name", "Дрель")).join();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(Map.of("id", 1), response.getBody());
+    }
+
+    @Test
+    void get_whenServerError_relaysStatusAndBody() {
+        BaseClient client = new BaseClient(rest);
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(ERROR));
+
+        ResponseEntity<Object> response = client.get("/1", 2L).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void get_whenUnknownStatus_relaysIt() {
+        BaseClient client = new BaseClient(rest);
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withRawStatus(499).body(ERROR));
+
+        ResponseEntity<Object> response = client.get("/1", 2L).join();
+
+        assertEquals(499, response.getStatusCodeValue());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void get_whenPassThrough_relaysBytesAndPassedHeaders() {
+        BaseClient client = new BaseClient(rest, null, null, true);
+        String items = "[ {\"id\": 1} ]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER_NEXT_CURSOR, "cursor");
+        headers.set("X-Internal", "secret");
+        server.expect(requestTo("http://server/items"))
+                .andRespond(withSuccess(items, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("", 2L).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(items.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("cursor", response.getHeaders().getFirst(HEADER_NEXT_CURSOR));
+        assertNull(response.getHeaders().get("X-Internal"));
+    }
+
+    @Test
+    void get_whenPassThroughError_relaysStatusAndBody() {
+        BaseClient client = new BaseClient(rest, null, null, true);
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(ERROR));
+
+        ResponseEntity<Object> response = client.get("/1", 2L).join();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void get_whenSameGetInFlight_thenSentOnce() throws Exception {
+        BaseClient client = new BaseClient(rest, null, new SingleFlight(new SimpleMeterRegistry()), false);
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(request -> {
+                    received.countDown();
+                    await(released);
+                    return withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON).createResponse(request);
+                });
+
+        CompletableFuture<ResponseEntity<Object>> first = CompletableFuture.supplyAsync(() -> client.get("/1", 2L))
+                .thenCompose(response -> response);
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<Object>> second = client.get("/1", 2L);
+        released.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(Map.of("id", 1), second.join().getBody());
+        server.verify();
+    }
+
+    @Test
+    void get_whenSharedGetFails_thenFails_andNextSentAgain() {
+        BaseClient client = new BaseClient(rest, null, new SingleFlight(new SimpleMeterRegistry()), false);
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withException(new IOException("Connection refused")));
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        CompletionException e = assertThrows(CompletionException.class, () -> client.get("/1", 2L).join());
+        ResponseEntity<Object> response = client.get("/1", 2L).join();
+
+        assertInstanceOf(ResourceAccessException.class, e.getCause());
+        assertEquals(Map.of("id", 1), response.getBody());
+        server.verify();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final AtomicInteger sent = new AtomicInteger();
+    private final SingleFlight.Key key = new SingleFlight.Key("/{id}", Map.of("id", 1), 2L);
+
+    private CompletableFuture<ResponseEntity<Object>> send(CompletableFuture<ResponseEntity<Object>> response) {
+        sent.incrementAndGet();
+        return response;
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.single-flight.requests").tag("result", result).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("gateway.single-flight.in-flight").gauge().value();
+    }
+
+    @Test
+    void get_whenSameInFlight_thenSentOnce() {
+        CompletableFuture<ResponseEntity<Object>> server = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Object>> first = singleFlight.get(key, () -> send(server));
+        CompletableFuture<ResponseEntity<Object>> second = singleFlight.get(
+                new SingleFlight.Key("/{id}", Map.of("id", 1), 2L), () -> send(new CompletableFuture<>()));
+
+        assertSame(first, second);
+        assertFalse(first.isDone());
+        assertEquals(1, inFlight());
+
+        ResponseEntity<Object> response = ResponseEntity.ok(Map.of("id", 1));
+        server.complete(response);
+
+        assertSame(response, first.join());
+        assertSame(response, second.join());
+        assertEquals(1, sent.get());
+        assertEquals(1, requests("sent"));
+        assertEquals(1, requests("merged"));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void get_whenSameCompleted_thenSentAgain() {
+        singleFlight.get(key, () -> send(CompletableFuture.completedFuture(ResponseEntity.ok(1)))).join();
+        singleFlight.get(key, () -> send(CompletableFuture.completedFuture(ResponseEntity.ok(2)))).join();
+
+        assertEquals(2, sent.get());
+        assertEquals(0, requests("merged"));
+    }
+
+    @Test
+    void get_whenOtherUserOrParameters_thenNotMerged() {
+        singleFlight.get(key, () -> send(new CompletableFuture<>()));
+        singleFlight.get(new SingleFlight.Key("/{id}", Map.of("id", 1), 3L), () -> send(new CompletableFuture<>()));
+        singleFlight.get(new SingleFlight.Key("/{id}", Map.of("id", 2), 2L), () -> send(new CompletableFuture<>()));
+
+        assertEquals(3, sent.get());
+        assertEquals(0, requests("merged"));
+        assertEquals(3, inFlight());
+    }
+
+    @Test
+    void get_whenSharedRequestFails_thenEveryWaiterFails_andNextSentAgain() {
+        CompletableFuture<ResponseEntity<Object>> server = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> first = singleFlight.get(key, () -> send(server));
+        CompletableFuture<ResponseEntity<Object>> second = singleFlight.get(key, () -> send(new CompletableFuture<>()));
+
+        ResourceAccessException error = new ResourceAccessException("Connection refused");
+        server.completeExceptionally(error);
+
+        assertSame(error, assertThrows(CompletionException.class, first::join).getCause());
+        assertSame(error, assertThrows(CompletionException.class, second::join).getCause());
+        assertEquals(0, inFlight());
+
+        ResponseEntity<Object> response = ResponseEntity.ok(1);
+        assertSame(response, singleFlight.get(key, () -> send(CompletableFuture.completedFuture(response))).join());
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    void get_whenRequestThrows_thenFails_andNextSentAgain() {
+        ResourceAccessException error = new ResourceAccessException("Connection refused");
+
+        CompletableFuture<ResponseEntity<Object>> failed = singleFlight.get(key, () -> {
+            throw error;
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertSame(error, assertThrows(CompletionException.class, failed::join).getCause());
+        assertEquals(0, inFlight());
+
+        singleFlight.get(key, () -> send(CompletableFuture.completedFuture(ResponseEntity.ok(1)))).join();
+        assertEquals(1, sent.get());
+    }
+}
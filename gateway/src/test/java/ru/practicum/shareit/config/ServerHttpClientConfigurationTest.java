@@ -0,0 +1,156 @@
+package ru.practicum.shareit.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerHttpClientConfigurationTest {
+    private static final String ITEM = "{ \"id\": 1, \"name\": \"Дрель\" }";
+    private static final String POOL_CONNECTIONS = "httpcomponents.httpclient.pool.total.connections";
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MetricsAutoConfiguration.class))
+            .withBean(SimpleMeterRegistry.class)
+            .withUserConfiguration(ServerHttpClientConfiguration.class);
+    private final CountDownLatch slowReceived = new CountDownLatch(1);
+    private final CountDownLatch slowReleased = new CountDownLatch(1);
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/items/1", exchange -> respond(exchange, ITEM));
+        server.createContext("/items/slow", exchange -> {
+            slowReceived.countDown();
+            await(slowReleased);
+            respond(exchange, ITEM);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowReleased.countDown();
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static double poolConnections(MeterRegistry meterRegistry, String state) {
+        return meterRegistry.get(POOL_CONNECTIONS)
+                .tag("httpclient", "shareit-server")
+                .tag("state", state)
+                .gauge()
+                .value();
+    }
+
+    @Test
+    void pool_whenPropertiesSet_thenLimitsApplied() {
+        contextRunner.withPropertyValues(
+                        "shareit-server.http.max-total=3",
+                        "shareit-server.http.max-per-route=2",
+                        "shareit-server.http.validate-after-inactivity=5s")
+                .run(context -> {
+                    PoolingHttpClientConnectionManager connectionManager =
+                            context.getBean(PoolingHttpClientConnectionManager.class);
+
+                    assertEquals(3, connectionManager.getMaxTotal());
+                    assertEquals(2, connectionManager.getDefaultMaxPerRoute());
+                    assertEquals(5000, connectionManager.getValidateAfterInactivity());
+                });
+    }
+
+    @Test
+    void requestFactory_usesPooledClient() {
+        contextRunner.run(context -> {
+            ClientHttpRequestFactory requestFactory = context.getBean("serverRequestFactory", ClientHttpRequestFactory.class);
+
+            assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, requestFactory);
+            assertSame(context.getBean(CloseableHttpClient.class),
+                    ((HttpComponentsClientHttpRequestFactory) requestFactory).getHttpClient());
+        });
+    }
+
+    @Test
+    void exchange_reusesConnection_andPublishesPool() {
+        contextRunner.run(context -> {
+            RestTemplate rest = new RestTemplate(context.getBean(ClientHttpRequestFactory.class));
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            assertEquals(ITEM, rest.getForObject(url("/items/1"), String.class));
+            assertEquals(ITEM, rest.getForObject(url("/items/1"), String.class));
+
+            assertEquals(1, poolConnections(meterRegistry, "available"));
+            assertEquals(0, poolConnections(meterRegistry, "leased"));
+            assertEquals(50, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                    .tag("httpclient", "shareit-server").gauge().value());
+        });
+    }
+
+    @Test
+    void exchange_whenPoolFull_thenFailsAfterConnectionRequestTimeout() {
+        contextRunner.withPropertyValues(
+                        "shareit-server.http.max-total=1",
+                        "shareit-server.http.max-per-route=1",
+                        "shareit-server.http.connection-request-timeout=200ms")
+                .run(context -> {
+                    RestTemplate rest = new RestTemplate(context.getBean(ClientHttpRequestFactory.class));
+                    CompletableFuture<String> slow = CompletableFuture.supplyAsync(
+                            () -> rest.getForObject(url("/items/slow"), String.class));
+                    assertTrue(slowReceived.await(5, TimeUnit.SECONDS));
+
+                    ResourceAccessException e = assertThrows(ResourceAccessException.class,
+                            () -> rest.getForObject(url("/items/1"), String.class));
+
+                    assertInstanceOf(ConnectionPoolTimeoutException.class, e.getCause());
+                    slowReleased.countDown();
+                    assertEquals(ITEM, slow.get(5, TimeUnit.SECONDS));
+                });
+    }
+}
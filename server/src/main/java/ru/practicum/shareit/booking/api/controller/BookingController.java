@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,23 +13,29 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.api.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingStatusBatchResultDto;
 import ru.practicum.shareit.booking.api.service.BookingService;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.pageable.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.constants.Constants.CREATE_BOOKING;
+import static ru.practicum.shareit.constants.Constants.CREATE_BOOKINGS_BATCH;
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_OWNER;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_USER;
 import static ru.practicum.shareit.constants.Constants.GET_BOOKING;
+import static ru.practicum.shareit.constants.Constants.HEADER_NEXT_CURSOR;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.SIZE;
 import static ru.practicum.shareit.constants.Constants.UPDATE_STATUS_BOOKING;
+import static ru.practicum.shareit.constants.Constants.UPDATE_STATUS_BOOKINGS_BATCH;
 
 @Slf4j
 @RestController
@@ -49,6 +56,22 @@ public class BookingController {
         return service.create(userId, dto);
     }
 
+    /**
+     * Несколько запросов на бронирование одним вызовом.<br/>
+     * Each entry is accepted or refused on its own.
+     *
+     * @param userId User ID - Booker
+     * @param dtos   Bookings
+     */
+    @PostMapping(CREATE_BOOKINGS_BATCH)
+    public List<BookingBatchResultDto> createAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestBody List<BookingSimpleDto> dtos) {
+        log.debug("Point: [{}]\nIncoming: Size:{} UserId:{}", CREATE_BOOKINGS_BATCH, dtos.size(), userId);
+
+        return service.createAll(userId, dtos);
+    }
+
     /**
      * Подтверждение или отклонение запроса на бронирование.<br/>
      * Может быть выполнено только владельцем вещи.<br/>
@@ -69,6 +92,25 @@ public class BookingController {
         return service.update(userId, id, approved);
     }
 
+    /**
+     * Подтверждение или отклонение нескольких запросов на бронирование.<br/>
+     * Bookings that cannot be changed are reported as skipped.
+     *
+     * @param userId     user ID - Owner
+     * @param bookingIds booking IDs
+     * @param approved   Booking status (true = APPROVED / false = REJECTED)
+     */
+    @PatchMapping(UPDATE_STATUS_BOOKINGS_BATCH)
+    public BookingStatusBatchResultDto updateAll(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @RequestBody List<Long> bookingIds,
+            @RequestParam Boolean approved) {
+        log.debug("[i] UPDATE_STATUS_BOOKINGS_BATCH\n USER_ID:{}, BOOKING_IDS:{}, APPROVED:{}",
+                userId, bookingIds, approved);
+
+        return service.updateAll(userId, bookingIds, approved);
+    }
+
     /**
      * Получение данных о конкретном бронировании (включая его статус).<br/>
      * Может быть выполнено либо автором бронирования,<br/>
@@ -93,21 +135,23 @@ public class BookingController {
      *
      * @param bookerId User ID - Booker
      * @param state    Search filter
+     * @param cursor   Keyset position from {@code X-Next-Cursor}, replaces {@code from}
      */
     @GetMapping(GET_ALL_BOOKINGS_FOR_USER)
-    public List<BookingDto> getAllByUser(
+    public ResponseEntity<List<BookingDto>> getAllByUser(
             @RequestHeader(HEADER_USER_ID) Long bookerId,
             @RequestParam(defaultValue = "ALL") BookingState state,
             @RequestParam(required = false, defaultValue = FROM) Integer from,
-            @RequestParam(required = false, defaultValue = SIZE) Integer size) {
-        log.debug("[i] GET_ALL_BOOKINGS_FOR_USER\n BOOKER_ID:{}, STATE:{}",
-                bookerId, state);
-
-        return service.getAllByUser(
-                bookerId,
-                state,
-                LocalDateTime.now(),
-                checkPageable(from, size));
+            @RequestParam(required = false, defaultValue = SIZE) Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("[i] GET_ALL_BOOKINGS_FOR_USER\n BOOKER_ID:{}, STATE:{}, CURSOR:{}",
+                bookerId, state, cursor);
+        Pageable pageable = checkPageable(from, size);
+
+        return withNextCursor(cursor == null
+                        ? service.getAllByUser(bookerId, state, LocalDateTime.now(), pageable)
+                        : service.getAllByUser(bookerId, state, LocalDateTime.now(), Cursor.decode(cursor), size),
+                size);
     }
 
     /**
@@ -116,21 +160,41 @@ public class BookingController {
      *
      * @param ownerId User ID - Owner
      * @param state   Search filter
+     * @param cursor  Keyset position from {@code X-Next-Cursor}, replaces {@code from}
      */
     @GetMapping(GET_ALL_BOOKINGS_FOR_OWNER)
-    public List<BookingDto> getAllByOwner(
+    public ResponseEntity<List<BookingDto>> getAllByOwner(
             @RequestHeader(HEADER_USER_ID) Long ownerId,
             @RequestParam(defaultValue = "ALL") BookingState state,
             @RequestParam(required = false, defaultValue = FROM) Integer from,
-            @RequestParam(required = false, defaultValue = SIZE) Integer size) {
-        log.debug("[i] GET_ALL_BOOKINGS_FOR_OWNER\n OWNER_ID:{}, STATE:{}",
-                ownerId, state);
-
-        return service.getAllByOwner(
-                ownerId,
-                state,
-                LocalDateTime.now(),
-                checkPageable(from, size));
+            @RequestParam(required = false, defaultValue = SIZE) Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("[i] GET_ALL_BOOKINGS_FOR_OWNER\n OWNER_ID:{}, STATE:{}, CURSOR:{}",
+                ownerId, state, cursor);
+        Pageable pageable = checkPageable(from, size);
+
+        return withNextCursor(cursor == null
+                        ? service.getAllByOwner(ownerId, state, LocalDateTime.now(), pageable)
+                        : service.getAllByOwner(ownerId, state, LocalDateTime.now(), Cursor.decode(cursor), size),
+                size);
+    }
+
+    /**
+     * A full page gets the {@code X-Next-Cursor} header
+     * pointing at its last booking.
+     *
+     * @param bookings Page of bookings
+     * @param size     Page size
+     */
+    private static ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+
+        return ResponseEntity.ok()
+                .header(HEADER_NEXT_CURSOR, new Cursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 
     public static Pageable checkPageable(Integer from, Integer size) {
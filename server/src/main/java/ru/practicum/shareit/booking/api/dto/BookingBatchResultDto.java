@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one entry of the batch booking.
+ * <p>
+ * {@link BookingBatchResultDto#index} Position of the entry in the request <br/>
+ * {@link BookingBatchResultDto#booking} Created booking, if the entry is accepted <br/>
+ * {@link BookingBatchResultDto#error} Reason of the refusal, otherwise <br/>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public final class BookingBatchResultDto {
+    private Integer index;
+    private BookingDto booking;
+    private String error;
+
+    public static BookingBatchResultDto created(Integer index, BookingDto booking) {
+        return new BookingBatchResultDto(index, booking, null);
+    }
+
+    public static BookingBatchResultDto refused(Integer index, String error) {
+        return new BookingBatchResultDto(index, null, error);
+    }
+}
@@ -23,6 +23,19 @@ public final class BookingDto {
     private ItemDto item;
     private BookerDto booker;
 
+    /**
+     * Constructor expression of the booking list queries.
+     */
+    public BookingDto(Long id,
+                      LocalDateTime start,
+                      LocalDateTime end,
+                      BookingStatus status,
+                      Long itemId,
+                      String itemName,
+                      Long bookerId) {
+        this(id, start, end, status, new ItemDto(itemId, itemName), new BookerDto(bookerId));
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.api.dto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
+import ru.practicum.shareit.booking.api.repository.BookingItemView;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.item.api.dto.ItemMapper;
 
@@ -11,6 +12,7 @@ public interface BookingMapper {
     BookingMapper INSTANCE = Mappers.getMapper(BookingMapper.class);
 
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
     @Mapping(target = "item.id", source = "dto.itemId")
     @Mapping(target = "booker.id", source = "bookerId")
     Booking toEntity(BookingSimpleDto dto, Long bookerId);
@@ -20,4 +22,6 @@ public interface BookingMapper {
     @Mapping(target = "itemId", source = "entity.item.id")
     @Mapping(target = "bookerId", source = "entity.booker.id")
     BookingItemDto toItemDto(Booking entity);
+
+    BookingItemDto viewToItemDto(BookingItemView view);
 }
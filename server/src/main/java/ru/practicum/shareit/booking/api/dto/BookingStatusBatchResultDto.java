@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of the bulk status transition.
+ * <p>
+ * {@link BookingStatusBatchResultDto#updated} IDs of the bookings with the new status <br/>
+ * {@link BookingStatusBatchResultDto#skipped} Reason by ID of every booking left as it was <br/>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public final class BookingStatusBatchResultDto {
+    private List<Long> updated;
+    private Map<Long, String> skipped;
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.api.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator access to {@link BookingIntervalIndex}.
+ * <p>
+ * {@code GET /actuator/bookingindex} Check the index against the bookings table, changes nothing <br/>
+ * {@code POST /actuator/bookingindex/repair} Replace the periods of the items that are out of sync <br/>
+ * {@code POST /actuator/bookingindex/rebuild} Rebuild the index <br/>
+ */
+@Component
+@Endpoint(id = "bookingindex")
+@RequiredArgsConstructor
+public class BookingIndexEndpoint {
+    private static final String REPAIR = "repair";
+    private static final String REBUILD = "rebuild";
+    private final BookingIntervalIndex index;
+
+    @ReadOperation
+    public Map<String, Object> check() {
+        List<Long> diverged = index.findDiverged();
+
+        return Map.of(
+                "consistent", diverged.isEmpty(),
+                "divergedItemIds", diverged);
+    }
+
+    @WriteOperation
+    public Map<String, Object> write(@Selector String action) {
+        switch (action) {
+            case REPAIR:
+                return Map.of("repairedItemIds", index.repair());
+            case REBUILD:
+                index.rebuild();
+                return Map.of();
+            default:
+                throw new InvalidEndpointRequestException("Unknown action: " + action,
+                        "Expected " + REPAIR + " or " + REBUILD);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.api.index;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rental period of an APPROVED booking.
+ * <p>
+ * {@code bookingId} ID Booking <br/>
+ * {@code itemId} ID Item <br/>
+ * {@code start} begin Booking <br/>
+ * {@code end} finish Booking <br/>
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingInterval {
+    private final Long bookingId;
+    private final Long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * Half-open periods {@code [start, end)}:
+     * a booking may start at the very moment the previous one ends.
+     */
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+}
@@ -0,0 +1,310 @@
+package ru.practicum.shareit.booking.api.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toSet;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+
+/**
+ * In-process index of APPROVED rental periods by item.
+ * <p>
+ * Lets {@code create} and {@code update} reject overlapping periods
+ * in O(log n) without a range query against the bookings table.<br/>
+ * The index is loaded from the database before the server accepts requests
+ * and can be compared with it by {@link #findDiverged()} and repaired by {@link #repair()}.<br/>
+ * Only periods that have not ended are kept: a new booking cannot start in the past,
+ * so the ended ones of an item are dropped on its next {@link #reserve}.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this(bookingRepository, Clock.systemDefaultZone());
+    }
+
+    BookingIntervalIndex(BookingRepository bookingRepository, Clock clock) {
+        this.bookingRepository = bookingRepository;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the APPROVED bookings that have not ended from the database.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            List<BookingInterval> approved = bookingRepository
+                    .findAllIntervalsByStatusAndEndAfter(APPROVED, LocalDateTime.now(clock));
+            items.clear();
+            approved.forEach(interval -> getItemIntervals(interval.getItemId()).add(interval));
+            log.info("[i] Booking index rebuilt: {} bookings, {} items", approved.size(), items.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param itemId Item ID
+     * @param start  begin Booking
+     * @param end    finish Booking
+     * @return true if the item is already booked for part of the period
+     */
+    public boolean isOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            ItemIntervals intervals = items.get(itemId);
+            return intervals != null && intervals.overlaps(start, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atomically checks the period and adds it to the index.
+     * The ended periods of the item are dropped first.
+     *
+     * @param interval APPROVED booking period
+     * @return false if the period overlaps an already approved one
+     */
+    public boolean reserve(BookingInterval interval) {
+        lock.readLock().lock();
+        try {
+            return getItemIntervals(interval.getItemId()).addIfFree(interval, LocalDateTime.now(clock));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the periods if the current transaction rolls back,
+     * so that a booking whose APPROVED status was not saved does not block the item.
+     * Outside a transaction the caller releases them itself.
+     *
+     * @param intervals Reserved periods, read when the transaction completes
+     */
+    public void releaseOnRollback(Collection<BookingInterval> intervals) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    intervals.forEach(BookingIntervalIndex.this::release);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes the period, e.g. when the status update was not saved.
+     *
+     * @param interval booking period
+     */
+    public void release(BookingInterval interval) {
+        lock.readLock().lock();
+        try {
+            ItemIntervals intervals = items.get(interval.getItemId());
+            if (intervals != null) {
+                intervals.remove(interval);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index with the APPROVED bookings in the database that have not ended.
+     * Changes nothing.
+     * <p>
+     * The database is read without the lock and the index under the read lock,
+     * so the check does not hold up bookings: one approved in between may be reported,
+     * {@link #repair()} compares under the write lock.
+     *
+     * @return IDs of the items whose periods are out of sync
+     */
+    public List<Long> findDiverged() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<Long, Set<BookingInterval>> stored = storedIntervals(now);
+        lock.readLock().lock();
+        try {
+            return findDiverged(stored, now);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the periods of every item that differs from the database.
+     *
+     * @return IDs of the items whose periods were out of sync
+     */
+    public List<Long> repair() {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            Map<Long, Set<BookingInterval>> stored = storedIntervals(now);
+            List<Long> diverged = findDiverged(stored, now);
+            for (Long itemId : diverged) {
+                items.remove(itemId);
+                stored.getOrDefault(itemId, Set.of())
+                        .forEach(interval -> getItemIntervals(itemId).add(interval));
+            }
+            if (!diverged.isEmpty()) {
+                log.warn("[!] Booking index was out of sync for items: {}", diverged);
+            }
+
+            return diverged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Set<BookingInterval>> storedIntervals(LocalDateTime now) {
+        return bookingRepository.findAllIntervalsByStatusAndEndAfter(APPROVED, now)
+                .stream()
+                .collect(groupingBy(BookingInterval::getItemId, toSet()));
+    }
+
+    private List<Long> findDiverged(Map<Long, Set<BookingInterval>> stored, LocalDateTime now) {
+        Set<Long> itemIds = new HashSet<>(stored.keySet());
+        itemIds.addAll(items.keySet());
+
+        List<Long> diverged = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            Set<BookingInterval> expected = stored.getOrDefault(itemId, Set.of());
+            ItemIntervals actual = items.get(itemId);
+            Set<BookingInterval> indexed = actual == null ? Set.of() : actual.snapshot(now);
+            if (!expected.equals(indexed)) {
+                diverged.add(itemId);
+            }
+        }
+        return diverged;
+    }
+
+    private ItemIntervals getItemIntervals(Long itemId) {
+        return items.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    /**
+     * Periods of one item sorted by start.
+     * <p>
+     * While the periods do not overlap each other, only the latest one
+     * starting before {@code end} can overlap a new period.
+     * Bookings approved before the index existed may overlap,
+     * in that case the item falls back to a scan.
+     */
+    private static final class ItemIntervals {
+        private static final Comparator<BookingInterval> BY_START =
+                Comparator.comparing(BookingInterval::getStart)
+                        .thenComparing(BookingInterval::getBookingId);
+        private final NavigableSet<BookingInterval> intervals = new TreeSet<>(BY_START);
+        private final Map<Long, BookingInterval> byBookingId = new HashMap<>();
+        private boolean disjoint = true;
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            BookingInterval probe = new BookingInterval(Long.MIN_VALUE, null, end, end);
+            if (disjoint) {
+                BookingInterval previous = intervals.lower(probe);
+                return previous != null && previous.getEnd().isAfter(start);
+            }
+            for (BookingInterval interval : intervals.headSet(probe, false)) {
+                if (interval.getEnd().isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized boolean addIfFree(BookingInterval interval, LocalDateTime now) {
+            removeEnded(now);
+            if (overlaps(interval.getStart(), interval.getEnd())) {
+                return false;
+            }
+            add(interval);
+            return true;
+        }
+
+        synchronized void add(BookingInterval interval) {
+            remove(interval);
+            if (overlaps(interval.getStart(), interval.getEnd())) {
+                disjoint = false;
+            }
+            intervals.add(interval);
+            byBookingId.put(interval.getBookingId(), interval);
+        }
+
+        synchronized void remove(BookingInterval interval) {
+            BookingInterval previous = byBookingId.remove(interval.getBookingId());
+            if (previous != null) {
+                intervals.remove(previous);
+            }
+        }
+
+        /**
+         * While the periods are disjoint, they end in the order they start.
+         */
+        synchronized void removeEnded(LocalDateTime now) {
+            Iterator<BookingInterval> iterator = intervals.iterator();
+            while (iterator.hasNext()) {
+                BookingInterval interval = iterator.next();
+                if (interval.getEnd().isAfter(now)) {
+                    if (disjoint) {
+                        break;
+                    }
+                    continue;
+                }
+                iterator.remove();
+                byBookingId.remove(interval.getBookingId());
+            }
+            if (intervals.isEmpty()) {
+                disjoint = true;
+            }
+        }
+
+        synchronized Set<BookingInterval> snapshot(LocalDateTime now) {
+            Set<BookingInterval> snapshot = new HashSet<>();
+            for (BookingInterval interval : intervals) {
+                if (interval.getEnd().isAfter(now)) {
+                    snapshot.add(interval);
+                }
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last or next booking of an item, selected by a native query
+ * without loading the booking, its item and its booker.
+ */
+public interface BookingItemView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -1,231 +1,129 @@
 package ru.practicum.shareit.booking.api.repository;
 
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.api.index.BookingInterval;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    /**
-     * - - - - - - - - - - - - - - - - - - GET ALL LAST
-     *
-     * @param ids    Item IDs
-     * @param start  begin Booking
-     * @param status finish Booking
-     * @param sort   Order by column
-     * @return Bookings
-     */
-    List<Booking> findByItem_IdInAndStartAfterAndStatus(
-            List<Long> ids,
-            LocalDateTime start,
-            BookingStatus status,
-            Sort sort);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - GET ALL NEXT
-     *
-     * @param ids    Item IDs
-     * @param start  begin Booking
-     * @param status finish Booking
-     * @param sort   Order by column
-     * @return Bookings
-     */
-    List<Booking> findByItem_IdInAndStartLessThanEqualAndStatus(
-            List<Long> ids,
-            LocalDateTime start,
-            BookingStatus status,
-            Sort sort);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - GET LAST
-     *
-     * @param itemId       Item IDs
-     * @param now          begin Booking
-     * @param approved     finish Booking
-     * @param sortStartAsc Order by column
-     * @return Bookings
-     */
-    Optional<Booking> findFirstByItem_IdAndStartAfterAndStatus(
-            Long itemId,
-            LocalDateTime now,
-            BookingStatus approved,
-            Sort sortStartAsc);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - GET NEXT
-     *
-     * @param itemId        Item IDs
-     * @param now           begin Booking
-     * @param approved      finish Booking
-     * @param sortStartDesc Order by column
-     * @return Bookings
-     */
-    Optional<Booking> findFirstByItem_IdAndStartLessThanEqualAndStatus(
-            Long itemId,
-            LocalDateTime now,
-            BookingStatus approved,
-            Sort sortStartDesc);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - ALL OWNER
-     *
-     * @param id       Owner ID
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.item.owner.id = ?1 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdOrderByStartDesc(Long id,
-                                                         Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - ALL BOOKER
-     *
-     * @param id       Booker ID
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.booker.id = ?1 order by b.start DESC")
-    List<Booking> findAllByBooker_IdOrderByStartDesc(Long id,
-                                                     Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - APPROVED, WAITING OWNER
-     *
-     * @param id       Owner ID
-     * @param status   Booking status
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.status = ?2 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-            Long id,
-            BookingStatus status,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - APPROVED, WAITING BOOKER
-     *
-     * @param id       Booker ID
-     * @param status   Booking status
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.status = ?2 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndStatusOrderByStartDesc(
-            Long id,
-            BookingStatus status,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - PAST OWNER
-     *
-     * @param ownerId  Owner ID
-     * @param end      Booking end
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.end < ?2 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(
-            Long ownerId,
-            LocalDateTime end,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - PAST BOOKER
-     *
-     * @param bookerId Booker ID
-     * @param now      Booking end
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.end < ?2 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndEndBeforeOrderByStartDesc(
-            Long bookerId,
-            LocalDateTime now,
-            Pageable pageable);
-
-    /**
-     * - - - - - - - - - - - - - - - - - - FUTURE BOOKER
-     *
-     * @param id       Booker ID
-     * @param start    Booking start
-     * @param pageable Pageable
-     * @return Bookings
-     */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.start > ?2 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndStartAfterOrderByStartDesc(
-            Long id,
-            LocalDateTime start,
-            Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingStateRepository {
+    /**
+     * - - - - - - - - - - - - - - - - - - GET ALL LAST AND NEXT
+     * <p>
+     * At most two rows per item, whatever the booking history:
+     * the latest APPROVED booking started before or at {@code now}
+     * and the earliest one starting after it, ties broken by ID as in the booking lists.
+     *
+     * @param itemIds Item IDs
+     * @param now     Bookings started before or at {@code now} are the last ones
+     * @return Last and next APPROVED bookings of the items, if any
+     */
+    @Query(value = "select id, itemId, bookerId, start, \"end\" from (" +
+            "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, " +
+            "b.start_time as start, b.break_time as \"end\", " +
+            "row_number() over (partition by b.item_id order by b.start_time desc, b.id desc) as position " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_time <= :now " +
+            "union all " +
+            "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, " +
+            "b.start_time as start, b.break_time as \"end\", " +
+            "row_number() over (partition by b.item_id order by b.start_time, b.id) as position " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_time > :now" +
+            ") last_next where position = 1",
+            nativeQuery = true)
+    List<BookingItemView> findLastAndNextByItemIdIn(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - GET LAST AND NEXT
+     * <p>
+     * One statement, each half served by {@code bookings_item_status_start_idx}.
+     *
+     * @param itemId Item ID
+     * @param now    Bookings started before or at {@code now} are the last ones
+     * @return Last and next APPROVED bookings, if any
+     */
+    @Query(value = "select * from ((select b.id as id, b.item_id as itemId, b.booker_id as bookerId, " +
+            "b.start_time as start, b.break_time as \"end\" " +
+            "from bookings b " +
+            "where b.item_id = :itemId and b.status = 'APPROVED' and b.start_time <= :now " +
+            "order by b.start_time desc, b.id desc limit 1) " +
+            "union all " +
+            "(select b.id as id, b.item_id as itemId, b.booker_id as bookerId, " +
+            "b.start_time as start, b.break_time as \"end\" " +
+            "from bookings b " +
+            "where b.item_id = :itemId and b.status = 'APPROVED' and b.start_time > :now " +
+            "order by b.start_time, b.id limit 1)) last_next",
+            nativeQuery = true)
+    List<BookingItemView> findLastAndNextByItemId(
+            @Param("itemId") Long itemId,
+            @Param("now") LocalDateTime now);
 
     /**
-     * - - - - - - - - - - - - - - - - - - FUTURE OWNER
+     * - - - - - - - - - - - - - - - - - - UPDATE STATUS RIGHT NOW
      *
-     * @param id       Owner ID
-     * @param start    Booking start
-     * @param pageable Pageable
-     * @return Bookings
+     * @param status Booking status
+     * @param id     Booking ID
      */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start > ?2 order by b.start DESC")
-    List<Booking> findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(
-            Long id,
-            LocalDateTime start,
-            Pageable pageable);
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id = :id")
+    void updateStatusById(
+            @Param(value = "status") BookingStatus status,
+            @Param(value = "id") @NonNull Long id);
 
     /**
-     * - - - - - - - - - - - - - - - - - - CURRENT BOOKER
+     * - - - - - - - - - - - - - - - - - - STATUS OF SEVERAL BOOKINGS
      *
-     * @param bookerId Booker ID
-     * @param start    Booking start
-     * @param end      Booking end
-     * @param pageable Pageable
-     * @return Bookings
+     * @param ids Booking IDs
+     * @return Owner, status and period of the bookings found
      */
-    @Query("select b from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?3 order by b.start DESC")
-    List<Booking> findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable);
+    @Query("select b.id as id, b.ownerId as ownerId, b.status as status, " +
+            "b.item.id as itemId, b.start as start, b.end as end " +
+            "from Booking b where b.id in :ids")
+    List<BookingStatusView> findAllStatusByIdIn(@Param(value = "ids") Collection<Long> ids);
 
     /**
-     * - - - - - - - - - - - - - - - - - - CURRENT OWNER
+     * - - - - - - - - - - - - - - - - - - UPDATE STATUS OF SEVERAL BOOKINGS
+     * <p>
+     * Only the bookings of the owner still in the {@code expected} status are changed.
      *
+     * @param status   New status
+     * @param ids      Booking IDs
      * @param ownerId  Owner ID
-     * @param start    Booking start
-     * @param end      Booking end
-     * @param pageable Pageable
-     * @return Bookings
+     * @param expected Current status
+     * @return Number of bookings changed
      */
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?3")
-    List<Booking> findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(
-            Long ownerId,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable);
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Booking b set b.status = :status " +
+            "where b.id in :ids and b.ownerId = :ownerId and b.status = :expected")
+    int updateStatusByIdIn(
+            @Param(value = "status") BookingStatus status,
+            @Param(value = "ids") Collection<Long> ids,
+            @Param(value = "ownerId") Long ownerId,
+            @Param(value = "expected") BookingStatus expected);
 
     /**
-     * - - - - - - - - - - - - - - - - - - UPDATE STATUS RIGHT NOW
+     * - - - - - - - - - - - - - - - - - - PERIODS FOR BOOKING INDEX
      *
      * @param status Booking status
-     * @param id     Booking ID
+     * @param now    Current time, the periods ended by it are skipped
+     * @return Booking periods
      */
-    @Transactional
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Booking b set b.status = :status where b.id = :id")
-    void updateStatusById(
-            @Param(value = "status") BookingStatus status,
-            @Param(value = "id") @NonNull Long id);
+    @Query("select new ru.practicum.shareit.booking.api.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b where b.status = ?1 and b.end > ?2")
+    List<BookingInterval> findAllIntervalsByStatusAndEndAfter(BookingStatus status, LocalDateTime now);
 
     /**
      * - - - - - - - - - - - - - - - - - - CHECK BOOKING FOR CREATE COMMENT
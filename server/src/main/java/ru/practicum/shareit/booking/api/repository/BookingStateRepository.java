@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.entity.enums.BookingRole;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
+import ru.practicum.shareit.pageable.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking lists filtered by {@link BookingState}
+ * for the booker or for the owner of the items.
+ * <p>
+ * Ordered by {@code start DESC, id DESC}.
+ * <p>
+ * Rows are selected straight into {@link BookingDto}:
+ * no entities reach the persistence context.
+ */
+public interface BookingStateRepository {
+    /**
+     * - - - - - - - - - - - - - - - - - - BY STATE, OFFSET
+     *
+     * @param role     Booker or Owner
+     * @param userId   User ID
+     * @param state    Search filter
+     * @param now      Current time for CURRENT, PAST, FUTURE
+     * @param pageable Pageable
+     * @return Bookings projected into DTO
+     */
+    List<BookingDto> findAllByState(BookingRole role,
+                                 Long userId,
+                                 BookingState state,
+                                 LocalDateTime now,
+                                 Pageable pageable);
+
+    /**
+     * - - - - - - - - - - - - - - - - - - BY STATE, AFTER CURSOR
+     *
+     * @param role   Booker or Owner
+     * @param userId User ID
+     * @param state  Search filter
+     * @param now    Current time for CURRENT, PAST, FUTURE
+     * @param cursor Last booking seen by the client
+     * @param size   Page size
+     * @return Bookings projected into DTO
+     */
+    List<BookingDto> findAllByState(BookingRole role,
+                                 Long userId,
+                                 BookingState state,
+                                 LocalDateTime now,
+                                 Cursor cursor,
+                                 Integer size);
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.entity.enums.BookingRole;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+import ru.practicum.shareit.pageable.Cursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
+
+/**
+ * Builds the booking list query from the predicate of the role
+ * and the predicate of the state.
+ * <p>
+ * Every (role, state) pair is rendered once into a query plan,
+ * so Hibernate only ever sees one statement per pair and page mode.
+ * A new state needs one more case in {@link #statePredicate(BookingState)}.
+ * <p>
+ * Only the columns of {@link BookingDto} are selected, with a single join on items:
+ * a page of any size costs one select and no entity is materialised.
+ */
+public class BookingStateRepositoryImpl implements BookingStateRepository {
+    private static final String SELECT = "select new ru.practicum.shareit.booking.api.dto.BookingDto("
+            + "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)"
+            + " from Booking b join b.item i";
+    private static final String AFTER_CURSOR =
+            "(b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))";
+    private static final String ORDER = " order by b.start desc, b.id desc";
+    private static final Map<BookingRole, Map<BookingState, QueryPlan>> OFFSET_PLANS = plans(false);
+    private static final Map<BookingRole, Map<BookingState, QueryPlan>> CURSOR_PLANS = plans(true);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findAllByState(BookingRole role,
+                                        Long userId,
+                                        BookingState state,
+                                        LocalDateTime now,
+                                        Pageable pageable) {
+        TypedQuery<BookingDto> query = createQuery(OFFSET_PLANS.get(role).get(state), userId, now);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        return query.getResultList();
+    }
+
+    @Override
+    public List<BookingDto> findAllByState(BookingRole role,
+                                        Long userId,
+                                        BookingState state,
+                                        LocalDateTime now,
+                                        Cursor cursor,
+                                        Integer size) {
+        TypedQuery<BookingDto> query = createQuery(CURSOR_PLANS.get(role).get(state), userId, now);
+        query.setParameter("cursorStart", cursor.getPosition());
+        query.setParameter("cursorId", cursor.getId());
+        query.setMaxResults(size);
+
+        return query.getResultList();
+    }
+
+    private TypedQuery<BookingDto> createQuery(QueryPlan plan, Long userId, LocalDateTime now) {
+        TypedQuery<BookingDto> query = entityManager.createQuery(plan.jpql, BookingDto.class);
+        query.setParameter("userId", userId);
+        if (plan.bindsNow) {
+            query.setParameter("now", now);
+        }
+        if (plan.status != null) {
+            query.setParameter("status", plan.status);
+        }
+
+        return query;
+    }
+
+    private static Map<BookingRole, Map<BookingState, QueryPlan>> plans(boolean afterCursor) {
+        Map<BookingRole, Map<BookingState, QueryPlan>> plans = new EnumMap<>(BookingRole.class);
+        for (BookingRole role : BookingRole.values()) {
+            Map<BookingState, QueryPlan> byState = new EnumMap<>(BookingState.class);
+            for (BookingState state : BookingState.values()) {
+                byState.put(state, plan(role, state, afterCursor));
+            }
+            plans.put(role, byState);
+        }
+
+        return plans;
+    }
+
+    private static QueryPlan plan(BookingRole role, BookingState state, boolean afterCursor) {
+        StringBuilder jpql = new StringBuilder(SELECT)
+                .append(" where ")
+                .append(rolePredicate(role));
+        String statePredicate = statePredicate(state);
+        if (statePredicate != null) {
+            jpql.append(" and ").append(statePredicate);
+        }
+        if (afterCursor) {
+            jpql.append(" and ").append(AFTER_CURSOR);
+        }
+        jpql.append(ORDER);
+
+        return new QueryPlan(jpql.toString(),
+                statePredicate != null && statePredicate.contains(":now"),
+                stateStatus(state));
+    }
+
+    private static String rolePredicate(BookingRole role) {
+        switch (role) {
+            case OWNER:
+                return "b.ownerId = :userId";
+            case BOOKER:
+            default:
+                return "b.booker.id = :userId";
+        }
+    }
+
+    private static String statePredicate(BookingState state) {
+        switch (state) {
+            case CURRENT:
+                return "b.start < :now and b.end > :now";
+            case PAST:
+                return "b.end < :now";
+            case FUTURE:
+                return "b.start > :now";
+            case WAITING:
+            case REJECTED:
+                return "b.status = :status";
+            case ALL:
+            default:
+                return null;
+        }
+    }
+
+    private static BookingStatus stateStatus(BookingState state) {
+        switch (state) {
+            case WAITING:
+                return WAITING;
+            case REJECTED:
+                return REJECTED;
+            default:
+                return null;
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class QueryPlan {
+        private final String jpql;
+        private final boolean bindsNow;
+        private final BookingStatus status;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the status transition needs to know about a booking,
+ * without loading the booking, its item and its booker.
+ */
+public interface BookingStatusView {
+    Long getId();
+
+    Long getOwnerId();
+
+    BookingStatus getStatus();
+
+    Long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking.api.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingStatusBatchResultDto;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
+import ru.practicum.shareit.pageable.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,11 +15,19 @@ public interface BookingService {
 
     BookingDto create(Long bookerId, BookingSimpleDto dto);
 
+    List<BookingBatchResultDto> createAll(Long bookerId, List<BookingSimpleDto> dtos);
+
     BookingDto update(Long ownerId, Long bookingId, Boolean approved);
 
+    BookingStatusBatchResultDto updateAll(Long ownerId, List<Long> bookingIds, Boolean approved);
+
     BookingDto get(Long userId, Long bookingId);
 
     List<BookingDto> getAllByUser(Long bookerId, BookingState state, LocalDateTime now, Pageable pageable);
 
     List<BookingDto> getAllByOwner(Long ownerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    List<BookingDto> getAllByUser(Long bookerId, BookingState state, LocalDateTime now, Cursor cursor, Integer size);
+
+    List<BookingDto> getAllByOwner(Long ownerId, BookingState state, LocalDateTime now, Cursor cursor, Integer size);
 }
@@ -4,26 +4,43 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.api.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingMapper;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingStatusBatchResultDto;
+import ru.practicum.shareit.booking.api.index.BookingInterval;
+import ru.practicum.shareit.booking.api.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.api.repository.BookingRepository;
+import ru.practicum.shareit.booking.api.repository.BookingStatusView;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
+import ru.practicum.shareit.booking.entity.enums.BookingStatus;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.service.ItemDetailCache;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.pageable.Cursor;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.lang.String.format;
-import static java.util.stream.Collectors.toList;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.BOOKER;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.OWNER;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
@@ -36,9 +53,17 @@ import static ru.practicum.shareit.constants.Constants.USER_NOT_EXISTS;
 @Slf4j
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String ITEM_IS_NOT_AVAILABLE =
+            "It is impossible to rent an item to which access is closed.";
+    private static final String BOOKER_IS_OWNER = "Access denied. You are owner this item";
+    private static final String ITEM_IS_BOOKED = "The item is already booked for this period.";
+    private static final String STATUS_IS_SET = "The booking status has already been set.";
+    private static final String NOT_OWNER = "Access denied. You are not the owner of the item";
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemDetailCache itemDetailCache;
 
     @Override
     public BookingDto create(Long bookerId, BookingSimpleDto dto) {
@@ -48,8 +73,7 @@ public class BookingServiceImpl implements BookingService {
                         format(ITEM_NOT_EXISTS, itemId)));
 
         if (!item.isAvailable()) {
-            throw new BadRequestException("It is impossible to rent "
-                    + "an item to which access is closed.");
+            throw new BadRequestException(ITEM_IS_NOT_AVAILABLE);
         }
 
         User booker = userRepository.findById(bookerId)
@@ -59,23 +83,93 @@ public class BookingServiceImpl implements BookingService {
         boolean bookerIsOwnerTheItem = bookerId.equals(item.getOwner().getId());
 
         if (bookerIsOwnerTheItem) {
-            throw new BookingException("Access denied."
-                    + " You are owner this item");
+            throw new BookingException(BOOKER_IS_OWNER);
         }
 
-        Booking booking = BookingMapper.INSTANCE.toEntity(dto, bookerId);
+        if (bookingIntervalIndex.isOverlapping(itemId, dto.getStart(), dto.getEnd())) {
+            throw new BadRequestException(ITEM_IS_BOOKED);
+        }
+
+        return BookingMapper.INSTANCE.toDto(
+                bookingRepository.save(newBooking(dto, item, booker)));
+    }
+
+    /**
+     * Бронирование нескольких предметов одним запросом.<br/>
+     * Every entry is checked as in {@link #create(Long, BookingSimpleDto)},
+     * a refused entry does not stop the others.<br/>
+     * The booker and all the items are read with one query each,
+     * the accepted bookings are inserted in JDBC batches.
+     *
+     * @param bookerId user ID - Booker
+     * @param dtos     Bookings
+     * @return Result of every entry, in the order of the request
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(Long bookerId, List<BookingSimpleDto> dtos) {
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new NotFoundException(
+                        format(USER_NOT_EXISTS, bookerId)));
+        Set<Long> itemIds = dtos.stream()
+                .map(BookingSimpleDto::getItemId)
+                .collect(toSet());
+        Map<Long, Item> items = itemRepository.findAllWithRequestByIdIn(itemIds).stream()
+                .collect(toMap(Item::getId, identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[dtos.size()];
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        for (int index = 0; index < dtos.size(); index++) {
+            BookingSimpleDto dto = dtos.get(index);
+            Item item = items.get(dto.getItemId());
+            String error = checkBatchEntry(bookerId, dto, item);
+            if (error == null) {
+                accepted.put(index, newBooking(dto, item, booker));
+            } else {
+                results[index] = BookingBatchResultDto.refused(index, error);
+            }
+        }
+
+        bookingRepository.saveAll(accepted.values());
+        accepted.forEach((index, booking) -> results[index] =
+                BookingBatchResultDto.created(index, BookingMapper.INSTANCE.toDto(booking)));
+
+        return List.of(results);
+    }
+
+    private String checkBatchEntry(Long bookerId, BookingSimpleDto dto, Item item) {
+        if (item == null) {
+            return format(ITEM_NOT_EXISTS, dto.getItemId());
+        }
+        if (!item.isAvailable()) {
+            return ITEM_IS_NOT_AVAILABLE;
+        }
+        if (bookerId.equals(item.getOwner().getId())) {
+            return BOOKER_IS_OWNER;
+        }
+        if (bookingIntervalIndex.isOverlapping(item.getId(), dto.getStart(), dto.getEnd())) {
+            return ITEM_IS_BOOKED;
+        }
+
+        return null;
+    }
+
+    private static Booking newBooking(BookingSimpleDto dto, Item item, User booker) {
+        Booking booking = BookingMapper.INSTANCE.toEntity(dto, booker.getId());
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStatus(WAITING);
 
-        return BookingMapper.INSTANCE.toDto(
-                bookingRepository.save(booking));
+        return booking;
     }
 
     /**
      * Подтверждение или отклонение запроса на бронирование.<br/>
      * Может быть выполнено только владельцем вещи.<br/>
-     * Затем статус бронирования становится либо APPROVED, либо REJECTED.
+     * Затем статус бронирования становится либо APPROVED, либо REJECTED.<br/>
+     * APPROVED is refused if the item is already booked for an overlapping period,
+     * the period is released again if the transaction rolls back.
      *
      * @param ownerId   user ID - Owner
      * @param bookingId booking ID
@@ -83,6 +177,7 @@ public class BookingServiceImpl implements BookingService {
      * @return Бронирование с новым статусом
      */
     @Override
+    @Transactional
     public BookingDto update(Long ownerId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(
@@ -91,7 +186,7 @@ public class BookingServiceImpl implements BookingService {
 
         boolean isNotWaitingStatus = !WAITING.equals(booking.getStatus());
         if (isNotWaitingStatus) {
-            throw new BadRequestException("The booking status has already been set.");
+            throw new BadRequestException(STATUS_IS_SET);
         }
 
         boolean isNotExistUser = !userRepository.existsById(ownerId);
@@ -108,12 +203,99 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approved ? APPROVED : REJECTED);
+        BookingInterval interval = new BookingInterval(bookingId,
+                booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        if (approved) {
+            if (!bookingIntervalIndex.reserve(interval)) {
+                throw new BadRequestException(ITEM_IS_BOOKED);
+            }
+            bookingIntervalIndex.releaseOnRollback(List.of(interval));
+        }
         bookingRepository
                 .updateStatusById(booking.getStatus(), bookingId);
+        itemDetailCache.evictBookings(List.of(interval.getItemId()));
 
         return BookingMapper.INSTANCE.toDto(booking);
     }
 
+    /**
+     * Подтверждение или отклонение нескольких запросов на бронирование.<br/>
+     * Ownership and status of all the bookings are read with one query,
+     * the new status is written with one UPDATE.<br/>
+     * A booking that cannot be changed is skipped with the reason.<br/>
+     * The reserved periods are released again if the transaction rolls back.
+     *
+     * @param ownerId    user ID - Owner
+     * @param bookingIds booking IDs
+     * @param approved   Booking status (true = APPROVED / false = REJECTED)
+     * @return Changed IDs and skipped IDs with the reason
+     */
+    @Override
+    @Transactional
+    public BookingStatusBatchResultDto updateAll(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        checkingUserId(ownerId);
+        BookingStatus status = approved ? APPROVED : REJECTED;
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        Map<Long, String> skipped = new LinkedHashMap<>();
+        Map<Long, BookingInterval> accepted = new LinkedHashMap<>();
+
+        Map<Long, BookingStatusView> found = bookingRepository.findAllStatusByIdIn(ids).stream()
+                .collect(toMap(BookingStatusView::getId, identity()));
+        for (Long id : ids) {
+            BookingStatusView booking = found.get(id);
+            if (booking == null) {
+                skipped.put(id, format(BOOKING_NOT_EXISTS, id));
+            } else if (!ownerId.equals(booking.getOwnerId())) {
+                skipped.put(id, NOT_OWNER);
+            } else if (!WAITING.equals(booking.getStatus())) {
+                skipped.put(id, STATUS_IS_SET);
+            } else {
+                BookingInterval interval = new BookingInterval(id,
+                        booking.getItemId(), booking.getStart(), booking.getEnd());
+                if (approved && !bookingIntervalIndex.reserve(interval)) {
+                    skipped.put(id, ITEM_IS_BOOKED);
+                } else {
+                    accepted.put(id, interval);
+                }
+            }
+        }
+        if (accepted.isEmpty()) {
+            return new BookingStatusBatchResultDto(List.of(), skipped);
+        }
+        if (approved) {
+            bookingIntervalIndex.releaseOnRollback(accepted.values());
+        }
+
+        int updated = bookingRepository.updateStatusByIdIn(status, accepted.keySet(), ownerId, WAITING);
+        if (updated < accepted.size()) {
+            skipConcurrentlyChanged(status, accepted, skipped);
+        }
+        itemDetailCache.evictBookings(accepted.values().stream()
+                .map(BookingInterval::getItemId)
+                .collect(toSet()));
+
+        return new BookingStatusBatchResultDto(new ArrayList<>(accepted.keySet()), skipped);
+    }
+
+    /**
+     * Someone else changed some of the bookings between the read and the UPDATE:
+     * they are moved from the accepted to the skipped ones.
+     */
+    private void skipConcurrentlyChanged(BookingStatus status,
+                                         Map<Long, BookingInterval> accepted,
+                                         Map<Long, String> skipped) {
+        bookingRepository.findAllStatusByIdIn(accepted.keySet()).stream()
+                .filter(booking -> !status.equals(booking.getStatus()))
+                .map(BookingStatusView::getId)
+                .forEach(id -> {
+                    BookingInterval interval = accepted.remove(id);
+                    if (APPROVED.equals(status)) {
+                        bookingIntervalIndex.release(interval);
+                    }
+                    skipped.put(id, STATUS_IS_SET);
+                });
+    }
+
     /**
      * @param userId    User ID
      * @param bookingId Booking ID
@@ -164,40 +346,12 @@ public class BookingServiceImpl implements BookingService {
      * @return Список бронирования
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllByUser(Long bookerId, BookingState state, LocalDateTime now, Pageable pageable) {
-        List<Booking> bookings = new ArrayList<>();
-
         checkingUserId(bookerId);
 
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository
-                        .findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId,
-                                now, now, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBooker_IdAndEndBeforeOrderByStartDesc(
-                        bookerId, now, pageable);
-                break;
-            case ALL:
-                bookings = bookingRepository.findAllByBooker_IdOrderByStartDesc(
-                        bookerId, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBooker_IdAndStartAfterOrderByStartDesc(
-                        bookerId, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, REJECTED, pageable);
-                break;
-        }
-
-        return getListBookingDtoRecord(bookings);
+        return bookingRepository
+                .findAllByState(BOOKER, bookerId, state, now, pageable);
     }
 
     private void checkingUserId(Long userId) {
@@ -225,50 +379,53 @@ public class BookingServiceImpl implements BookingService {
      * @return Список бронирования
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllByOwner(Long ownerId, BookingState state, LocalDateTime now, Pageable pageable) {
-        List<Booking> bookings = new ArrayList<>();
-
         checkingUserId(ownerId);
 
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(ownerId,
-                        now, now, pageable);
-
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(
-                        ownerId, now, pageable);
-                break;
-            case ALL:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdOrderByStartDesc(
-                                ownerId, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(
-                                ownerId, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-                                ownerId, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository
-                        .findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-                                ownerId, REJECTED, pageable);
-                break;
-        }
+        return bookingRepository
+                .findAllByState(OWNER, ownerId, state, now, pageable);
+    }
+
+    /**
+     * Список предметов, взятых пользователем, после позиции курсора (keyset).<br/>
+     * Фильтр поиска - как в {@link #getAllByUser(Long, BookingState, LocalDateTime, Pageable)}.
+     *
+     * @param bookerId user ID
+     * @param state    Фильтр поиска
+     * @param now      Точное время
+     * @param cursor   Last booking seen by the client
+     * @param size     Page size
+     * @return Список бронирования
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllByUser(Long bookerId, BookingState state, LocalDateTime now,
+                                         Cursor cursor, Integer size) {
+        checkingUserId(bookerId);
 
-        return getListBookingDtoRecord(bookings);
+        return bookingRepository
+                .findAllByState(BOOKER, bookerId, state, now, cursor, size);
     }
 
-    private List<BookingDto> getListBookingDtoRecord(List<Booking> bookingList) {
+    /**
+     * Список бронирований вещей владельца после позиции курсора (keyset).<br/>
+     * Фильтр поиска - как в {@link #getAllByOwner(Long, BookingState, LocalDateTime, Pageable)}.
+     *
+     * @param ownerId user ID
+     * @param state   Фильтр поиска
+     * @param now     Точное время
+     * @param cursor  Last booking seen by the client
+     * @param size    Page size
+     * @return Список бронирования
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllByOwner(Long ownerId, BookingState state, LocalDateTime now,
+                                          Cursor cursor, Integer size) {
+        checkingUserId(ownerId);
 
-        return bookingList.stream()
-                .map(BookingMapper.INSTANCE::toDto)
-                .collect(toList());
+        return bookingRepository
+                .findAllByState(OWNER, ownerId, state, now, cursor, size);
     }
 }
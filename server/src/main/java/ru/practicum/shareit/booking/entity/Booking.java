@@ -17,10 +17,11 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
 
 @Builder
 @Getter
@@ -31,7 +32,10 @@ import static javax.persistence.GenerationType.IDENTITY;
 @Table(name = "bookings", schema = "public")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq",
+            sequenceName = "bookings_seq",
+            allocationSize = 50)
     private Long id;
 
     @Column(name = "START_TIME")
@@ -50,6 +54,9 @@ public class Booking {
             referencedColumnName = "ID")
     private User booker;
 
+    @Column(name = "OWNER_ID")
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false,
             length = 16)
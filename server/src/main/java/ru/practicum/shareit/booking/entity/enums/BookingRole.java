@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.entity.enums;
+
+/**
+ * Чьи бронирования ищем:
+ * <ul>
+ *     <li>BOOKER - бронирования, созданные пользователем</li>
+ *     <li>OWNER - бронирования вещей пользователя</li>
+ * </ul>
+ */
+public enum BookingRole {
+    BOOKER,
+    OWNER
+}
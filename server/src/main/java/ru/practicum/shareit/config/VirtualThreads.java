@@ -0,0 +1,43 @@
+package ru.practicum.shareit.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads of Java 21, created reflectively: the build targets Java 11.
+ * <p>
+ * {@link #newExecutor()} One new virtual thread per task <br/>
+ * {@link #factory(String)} Virtual threads named {@code prefix1, prefix2, ...} <br/>
+ * <p>
+ * An older runtime fails with {@link IllegalStateException}.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    public static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw unsupported(e);
+        }
+    }
+
+    public static ThreadFactory factory(String prefix) {
+        try {
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw unsupported(e);
+        }
+    }
+
+    private static IllegalStateException unsupported(ReflectiveOperationException e) {
+        return new IllegalStateException("Virtual threads need Java 21, the runtime is " + Runtime.version(), e);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Profile {@code virtual-threads}, {@code shareit.virtual-threads.enabled=true}:
+ * Tomcat handles every request on a new virtual thread instead of its pool,
+ * a request waiting for JDBC does not hold a platform thread.
+ * Needs Java 21 at runtime.
+ * <p>
+ * The item fan-out pool ({@link ru.practicum.shareit.item.api.service.ItemQueryFanOut})
+ * keeps its bound, which is the number of connections it may take, on virtual threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(VirtualThreads.newExecutor());
+            log.info("[i] Requests are handled on virtual threads");
+        };
+    }
+}
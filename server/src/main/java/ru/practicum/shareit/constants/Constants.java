@@ -12,6 +12,7 @@ import org.jeasy.random.EasyRandom;
  * {@link Constants#RANDOM} Random для тестов <br/>
  * <h2>Headers</h2>
  * {@link Constants#HEADER_USER_ID} Имя заголовка для userId <br/>
+ * {@link Constants#HEADER_NEXT_CURSOR} Имя заголовка с курсором следующей страницы <br/>
  * <h2>Errors</h2>
  * {@link Constants#USER_NOT_EXISTS} Текст ошибки, если пользователь не существует <br/>
  * {@link Constants#ITEM_NOT_EXISTS} Текст ошибки, если предмет не существует <br/>
@@ -20,7 +21,9 @@ import org.jeasy.random.EasyRandom;
  * <h2>The URLs for the endpoint in controller</h2>
  * <h3>Booking Controller</h3>
  * {@link Constants#CREATE_BOOKING} Создание бронирования <br/>
+ * {@link Constants#CREATE_BOOKINGS_BATCH} Создание нескольких бронирований <br/>
  * {@link Constants#UPDATE_STATUS_BOOKING} Изменить статус бронирования <br/>
+ * {@link Constants#UPDATE_STATUS_BOOKINGS_BATCH} Изменить статус нескольких бронирований <br/>
  * {@link Constants#GET_BOOKING}    Посмотреть бронирование <br/>
  * {@link Constants#GET_ALL_BOOKINGS_FOR_USER}  Посмотреть бронирования от имени пользователя <br/>
  * {@link Constants#GET_ALL_BOOKINGS_FOR_OWNER} Посмотреть бронирования от имени владельца предмета <br/>
@@ -31,6 +34,7 @@ import org.jeasy.random.EasyRandom;
  * {@link Constants#SEARCH_ITEM} Поиск предмета <br/>
  * {@link Constants#GET_ALL_ITEMS} Посмотреть все предметы <br/>
  * {@link Constants#CREATE_COMMENT} Оставить комментарий для предмета <br/>
+ * {@link Constants#GET_COMMENTS} Посмотреть комментарии предмета <br/>
  * <h3>ItemRequest Controller</h3>
  * {@link Constants#CREATE_REQUEST} Создать запрос на предмет <br/>
  * {@link Constants#GET_BY_REQUESTER} Посмотреть запрос на предмет от имени запрашиваемого <br/>
@@ -50,12 +54,15 @@ public interface Constants {
     String FROM = "0";
     String SIZE = "10";
     String HEADER_USER_ID = "X-Sharer-User-Id";
+    String HEADER_NEXT_CURSOR = "X-Next-Cursor";
     String USER_NOT_EXISTS = "User with id:(%d) not exist";
     String ITEM_NOT_EXISTS = "Item with id:(%d) not exist";
     String REQUEST_NOT_EXISTS = "Request with id:(%d) not exist";
     String BOOKING_NOT_EXISTS = "Booking with id:(%d) not exist";
     String CREATE_BOOKING = "/bookings";
+    String CREATE_BOOKINGS_BATCH = "/bookings/batch";
     String UPDATE_STATUS_BOOKING = "/bookings/{id}";
+    String UPDATE_STATUS_BOOKINGS_BATCH = "/bookings/batch";
     String GET_BOOKING = "/bookings/{id}";
     String GET_ALL_BOOKINGS_FOR_USER = "/bookings";
     String GET_ALL_BOOKINGS_FOR_OWNER = "/bookings/owner";
@@ -65,6 +72,7 @@ public interface Constants {
     String SEARCH_ITEM = "/items/search";
     String GET_ALL_ITEMS = "/items";
     String CREATE_COMMENT = "/items/{id}/comment";
+    String GET_COMMENTS = "/items/{id}/comments";
     String CREATE_REQUEST = "/requests";
     String GET_BY_REQUESTER = "/requests";
     String GET_REQUEST = "/requests/{id}";
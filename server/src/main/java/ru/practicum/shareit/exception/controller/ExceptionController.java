@@ -11,6 +11,7 @@ import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.RentalPeriodException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
 import ru.practicum.shareit.exception.StateException;
 import ru.practicum.shareit.exception.entity.ErrorException;
 
@@ -20,6 +21,7 @@ import java.time.ZonedDateTime;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @Slf4j
 @RestControllerAdvice
@@ -101,4 +103,17 @@ public class ExceptionController {
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorException(404, message));
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    public ResponseEntity<?> handleServiceUnavailableException(ServiceUnavailableException e) {
+        String message = e.getMessage();
+
+        logError(SERVICE_UNAVAILABLE, message, e);
+
+        return ResponseEntity
+                .status(SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorException(503, message));
+    }
 }
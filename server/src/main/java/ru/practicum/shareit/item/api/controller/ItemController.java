@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.api.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,7 +14,9 @@ import ru.practicum.shareit.item.api.dto.CommentDto;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.search.ItemSearchSort;
 import ru.practicum.shareit.item.api.service.ItemService;
+import ru.practicum.shareit.pageable.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,7 +26,9 @@ import static ru.practicum.shareit.constants.Constants.CREATE_COMMENT;
 import static ru.practicum.shareit.constants.Constants.CREATE_ITEM;
 import static ru.practicum.shareit.constants.Constants.FROM;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_ITEMS;
+import static ru.practicum.shareit.constants.Constants.GET_COMMENTS;
 import static ru.practicum.shareit.constants.Constants.GET_ITEM;
+import static ru.practicum.shareit.constants.Constants.HEADER_NEXT_CURSOR;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.SEARCH_ITEM;
 import static ru.practicum.shareit.constants.Constants.SIZE;
@@ -65,9 +70,11 @@ public class ItemController {
             @RequestParam(required = false, defaultValue = FROM)
             Integer from,
             @RequestParam(required = false, defaultValue = SIZE)
-            Integer size) {
+            Integer size,
+            @RequestParam(required = false, defaultValue = "ID")
+            ItemSearchSort sort) {
 
-        return service.search(textSearch, checkPageable(from, size));
+        return service.search(textSearch, sort, checkPageable(from, size));
     }
 
     @GetMapping(GET_ALL_ITEMS)
@@ -93,4 +100,29 @@ public class ItemController {
 
         return service.createComment(commentSimpleDto);
     }
+
+    /**
+     * Comments of the item, newest first.
+     *
+     * @param cursor Keyset position from {@code X-Next-Cursor}, null for the first page
+     */
+    @GetMapping(GET_COMMENTS)
+    public ResponseEntity<List<CommentDto>> getComments(
+            @RequestHeader(HEADER_USER_ID) Long userId,
+            @PathVariable(name = "id") Long itemId,
+            @RequestParam(required = false, defaultValue = SIZE)
+            Integer size,
+            @RequestParam(required = false) String cursor) {
+        checkPageable(0, size);
+        List<CommentDto> comments = service.getComments(userId, itemId,
+                cursor == null ? null : Cursor.decode(cursor), size);
+        if (comments.size() < size) {
+            return ResponseEntity.ok(comments);
+        }
+        CommentDto last = comments.get(comments.size() - 1);
+
+        return ResponseEntity.ok()
+                .header(HEADER_NEXT_CURSOR, new Cursor(last.getCreated(), last.getId()).encode())
+                .body(comments);
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,11 +20,12 @@ import java.util.List;
  * {@code name} Name item <br/>
  * {@code description} Description item <br/>
  * {@code available} Available item <br/>
- * {@code request} RequestId
+ * {@code request} RequestId <br/>
+ * {@code commentsCount} Number of all comments, only in the comment preview mode
  */
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class ItemDto {
@@ -34,5 +36,7 @@ public class ItemDto {
     private BookingItemDto lastBooking;
     private BookingItemDto nextBooking;
     private List<CommentDto> comments;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long commentsCount;
     private Long requestId;
 }
@@ -19,9 +19,16 @@ public interface ItemMapper {
     @Mapping(target = "nextBooking", ignore = true)
     @Mapping(target = "lastBooking", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentsCount", ignore = true)
     @Mapping(target = "requestId", source = "entity.request.id")
     ItemDto toDto(Item entity);
 
+    @Mapping(target = "nextBooking", ignore = true)
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentsCount", ignore = true)
+    ItemDto simpleToDto(ItemSimpleDto dto);
+
     @Mapping(target = "request", ignore = true)
     @Mapping(target = "owner.id", source = "userId")
     Item toEntity(ItemSimpleDto itemDto, Long userId);
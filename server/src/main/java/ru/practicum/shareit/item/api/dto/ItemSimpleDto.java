@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.api.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -18,6 +19,7 @@ import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class ItemSimpleDto {
     private Long id;
     private String name;
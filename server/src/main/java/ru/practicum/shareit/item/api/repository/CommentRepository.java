@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item.api.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.api.dto.CommentDto;
 import ru.practicum.shareit.item.entity.CommentEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
@@ -13,15 +17,66 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
      * @param itemIds Item ID
      * @return Comments
      */
-    @Query("select c from CommentEntity c where c.item.id in ?1 order by c.created DESC")
-    List<CommentEntity> findByItem_IdInOrderByCreatedDesc(List<Long> itemIds);
+    @Query("select c.item.id as itemId, c.id as id, c.text as text, a.name as authorName, c.created as created " +
+            "from CommentEntity c join c.author a " +
+            "where c.item.id in ?1 order by c.created DESC, c.id DESC")
+    List<ItemCommentView> findAllViewByItem_IdIn(Collection<Long> itemIds);
 
     /**
      * for get Item
      *
      * @param itemId Item ID
-     * @return Comments
+     * @return Comments with the author names, newest first
+     */
+    @Query("select new ru.practicum.shareit.item.api.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from CommentEntity c join c.author a " +
+            "where c.item.id = ?1 order by c.created DESC, c.id DESC")
+    List<CommentDto> findAllDtoByItem_Id(Long itemId);
+
+    /**
+     * Top-N per item: the {@code limit} newest comments of every item
+     * and the number of all its comments, in one statement.
+     *
+     * @param itemIds Item IDs
+     * @param limit   Comments per item
+     * @return Comments grouped by item, newest first
+     */
+    @Query(value = "select * from (" +
+            "select c.item_id as itemId, c.id as id, c.text as text, u.name as authorName, " +
+            "c.created as created, " +
+            "row_number() over (partition by c.item_id order by c.created desc, c.id desc) as position, " +
+            "count(*) over (partition by c.item_id) as total " +
+            "from comments c join users u on u.id = c.author_id " +
+            "where c.item_id in (:itemIds)) preview " +
+            "where position <= :limit " +
+            "order by itemId, position",
+            nativeQuery = true)
+    List<ItemCommentPreview> findPreviewByItem_IdIn(Collection<Long> itemIds, int limit);
+
+    /**
+     * First page of the comments of an item, newest first.
+     *
+     * @param itemId   Item ID
+     * @param pageable Page size
+     * @return Comments with the author names
+     */
+    @Query("select new ru.practicum.shareit.item.api.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from CommentEntity c join c.author a " +
+            "where c.item.id = ?1 order by c.created DESC, c.id DESC")
+    List<CommentDto> findPageByItem_Id(Long itemId, Pageable pageable);
+
+    /**
+     * Page of the comments of an item after the keyset position {@code (created, id)}.
+     *
+     * @param itemId   Item ID
+     * @param created  Created of the last comment seen
+     * @param id       ID of the last comment seen
+     * @param pageable Page size
+     * @return Comments with the author names
      */
-    @Query("select c from CommentEntity c where c.item.id = ?1 order by c.created DESC")
-    List<CommentEntity> findAllByItem_IdOrderByCreatedDesc(Long itemId);
-}
\ No newline at end of file
+    @Query("select new ru.practicum.shareit.item.api.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from CommentEntity c join c.author a " +
+            "where c.item.id = ?1 and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) " +
+            "order by c.created DESC, c.id DESC")
+    List<CommentDto> findPageByItem_IdAfter(Long itemId, LocalDateTime created, Long id, Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.api.repository;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Product name of the database the native statements run on,
+ * the dialect may be configured for another one.
+ */
+final class DatabaseProduct {
+    private DatabaseProduct() {
+    }
+
+    static String of(EntityManager entityManager) {
+        return entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.api.repository;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * {@code word_similarity} of pg_trgm for H2, registered by the H2 migration {@code V12}.
+ * <p>
+ * Words are padded with two spaces before and one after, as in pg_trgm.
+ * The similarity is the greatest share of the trigrams of the term found in one word of the text;
+ * pg_trgm also tries extents across words, so it may score a little higher.
+ */
+public final class H2WordSimilarity {
+    /**
+     * Default {@code pg_trgm.word_similarity_threshold}.
+     */
+    static final String THRESHOLD = "0.6";
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private H2WordSimilarity() {
+    }
+
+    public static double wordSimilarity(String term, String text) {
+        if (term == null || text == null) {
+            return 0;
+        }
+        Set<String> termTrigrams = trigrams(term);
+        if (termTrigrams.isEmpty()) {
+            return 0;
+        }
+        double similarity = 0;
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            Set<String> common = trigrams(word);
+            common.retainAll(termTrigrams);
+            similarity = Math.max(similarity, (double) common.size() / termTrigrams.size());
+        }
+        return similarity;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
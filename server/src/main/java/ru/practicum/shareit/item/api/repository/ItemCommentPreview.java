@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.api.repository;
+
+/**
+ * One of the newest comments of an item
+ * with the number of all comments of that item.
+ */
+public interface ItemCommentPreview extends ItemCommentView {
+    Long getTotal();
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment of one of several items, with the author name,
+ * without loading the comment, its item and its author.
+ */
+public interface ItemCommentView {
+    Long getItemId();
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.api.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+
+/**
+ * Item changed by {@link ItemPatchRepository#patch}.
+ * <p>
+ * {@code before} Item before the change <br/>
+ * {@code after} Item after the change <br/>
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemPatch {
+    private final ItemSimpleDto before;
+    private final ItemSimpleDto after;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.api.repository;
+
+import java.util.Optional;
+
+/**
+ * Partial update of an item in one statement.
+ */
+public interface ItemPatchRepository {
+    /**
+     * Sets the not null fields of the item, if the user owns it.
+     * <p>
+     * The persistence context is not cleared:
+     * an item already loaded in it keeps the old values.
+     *
+     * @param itemId      Item ID
+     * @param ownerId     User ID, must own the item
+     * @param name        New name or null
+     * @param description New description or null
+     * @param available   New availability or null
+     * @return The item before and after the change,
+     * empty if the user does not own such an item
+     * @throws IllegalArgumentException if all the fields are null
+     */
+    Optional<ItemPatch> patch(Long itemId, Long ownerId, String name, String description, Boolean available);
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.api.repository;
+
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Builds one UPDATE from the given fields, restricted to the owner:
+ * no row changed means no such item of the owner.
+ * <p>
+ * The old row is returned by the same statement: <br/>
+ * PostgreSQL {@code UPDATE ... FROM (SELECT ... FOR UPDATE) previous ... RETURNING previous.*} <br/>
+ * H2 {@code SELECT ... FROM OLD TABLE (UPDATE ...)}
+ * <p>
+ * The new row is the old one with the given fields.
+ */
+public class ItemPatchRepositoryImpl implements ItemPatchRepository {
+    private static final String POSTGRESQL = "update items i set %s"
+            + " from (select id, name, description, available from items where id = :itemId for update) previous"
+            + " where i.id = previous.id and i.owner_id = :ownerId"
+            + " returning previous.id, previous.name, previous.description, previous.available, i.item_request_id";
+    private static final String H2 = "select id, name, description, available, item_request_id"
+            + " from old table (update items set %s where id = :itemId and owner_id = :ownerId)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private volatile String database;
+
+    @Override
+    public Optional<ItemPatch> patch(Long itemId, Long ownerId, String name, String description, Boolean available) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (name != null) {
+            fields.put("name", name);
+        }
+        if (description != null) {
+            fields.put("description", description);
+        }
+        if (available != null) {
+            fields.put("available", available);
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update in the item " + itemId);
+        }
+        String set = fields.keySet().stream()
+                .map(column -> column + " = :" + column)
+                .collect(joining(", "));
+
+        List<?> rows = withFields(entityManager.createNativeQuery(String.format(statement(), set)), fields)
+                .setParameter("itemId", itemId)
+                .setParameter("ownerId", ownerId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object[] row = (Object[]) rows.get(0);
+        ItemSimpleDto before = new ItemSimpleDto(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                (Boolean) row[3],
+                row[4] == null ? null : ((Number) row[4]).longValue());
+        ItemSimpleDto after = new ItemSimpleDto(
+                before.getId(),
+                name != null ? name : before.getName(),
+                description != null ? description : before.getDescription(),
+                available != null ? available : before.getAvailable(),
+                before.getRequestId());
+
+        return Optional.of(new ItemPatch(before, after));
+    }
+
+    /**
+     * By the {@link DatabaseProduct}.
+     */
+    private String statement() {
+        if (database == null) {
+            database = DatabaseProduct.of(entityManager);
+        }
+        switch (database) {
+            case "PostgreSQL":
+                return POSTGRESQL;
+            case "H2":
+                return H2;
+            default:
+                throw new IllegalStateException("Item patch is not supported on " + database);
+        }
+    }
+
+    private static Query withFields(Query query, Map<String, Object> fields) {
+        fields.forEach(query::setParameter);
+        return query;
+    }
+}
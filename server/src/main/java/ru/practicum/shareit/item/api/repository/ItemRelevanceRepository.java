@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.api.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+
+import java.util.List;
+
+/**
+ * Relevance search of available items in one statement.
+ */
+public interface ItemRelevanceRepository {
+    /**
+     * Finds the items matching any of the words, exactly or by trigram similarity,
+     * scores them and returns the requested page.
+     *
+     * @param terms     Upper-cased query words, see {@link ru.practicum.shareit.item.api.search.ItemRelevance#terms}
+     * @param documents Number of searchable items, for the inverse document frequency
+     * @param pageable  Page of the ranked list
+     * @return Items by descending score, then by ID
+     */
+    List<ItemSimpleDto> searchByRelevance(List<String> terms, long documents, Pageable pageable);
+}
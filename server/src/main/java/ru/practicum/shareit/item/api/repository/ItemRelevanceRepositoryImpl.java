@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.api.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.search.ItemRelevance;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The BM25F score of {@link ItemRelevance} computed by the database.
+ * <p>
+ * A word matches a field if the field contains it or if their trigram word similarity
+ * reaches the threshold of pg_trgm (0.6); a similar field counts as a fraction of an occurrence. <br/>
+ * Occurrences are counted per field, not per word of the field, and the field lengths are in characters,
+ * normalised by the average over the matching items.
+ * <p>
+ * Every word is matched by its own branch with constant parameters, so that on PostgreSQL
+ * {@code term <% upper(field)} and {@code LIKE} are served by the trigram GIN indexes <br/>
+ * H2 {@code word_similarity} is {@link H2WordSimilarity}
+ */
+public class ItemRelevanceRepositoryImpl implements ItemRelevanceRepository {
+    private static final String STATEMENT = ("select i.id, i.name, i.description, i.available, i.item_request_id"
+            + " from ("
+            + "  select id, sum(ln(1 + (cast(:documents as double precision) - frequency + 0.5) / (frequency + 0.5))"
+            + "   * occurrences * ({k1} + 1) / (occurrences + {k1})) as score"
+            + "  from ("
+            + "   select id,"
+            + "    {nameWeight} * name_match"
+            + "     / (1 - {b} + {b} * name_length / greatest(avg(name_length) over (), 1))"
+            + "    + {descriptionWeight} * description_match"
+            + "     / (1 - {b} + {b} * description_length / greatest(avg(description_length) over (), 1))"
+            + "     as occurrences,"
+            + "    count(*) over (partition by term) as frequency"
+            + "   from ({matches}) matches"
+            + "  ) weighted"
+            + "  group by id"
+            + "  order by score desc, id limit :limit offset :offset"
+            + " ) ranked join items i on i.id = ranked.id"
+            + " order by ranked.score desc, ranked.id")
+            .replace("{nameWeight}", String.valueOf(ItemRelevance.NAME_WEIGHT))
+            .replace("{descriptionWeight}", String.valueOf(ItemRelevance.DESCRIPTION_WEIGHT))
+            .replace("{b}", String.valueOf(ItemRelevance.B))
+            .replace("{k1}", String.valueOf(ItemRelevance.K1));
+    private static final String MATCH = "select i.id, {term} as term,"
+            + " case when upper(i.name) like :pattern{n} then 1.0"
+            + "  when {name similar} then word_similarity({term}, upper(i.name)) else 0 end as name_match,"
+            + " case when upper(i.description) like :pattern{n} then 1.0"
+            + "  when {description similar} then word_similarity({term}, upper(i.description)) else 0 end"
+            + "  as description_match,"
+            + " length(coalesce(i.name, '')) as name_length,"
+            + " length(coalesce(i.description, '')) as description_length"
+            + " from items i where i.available"
+            + " and (upper(i.name) like :pattern{n} or {name similar}"
+            + "  or upper(i.description) like :pattern{n} or {description similar})";
+    private static final String POSTGRESQL_SIMILAR = "{term} <% upper(i.{field})";
+    private static final String H2_SIMILAR = "word_similarity({term}, upper(i.{field})) >= "
+            + H2WordSimilarity.THRESHOLD;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private volatile String match;
+
+    @Override
+    public List<ItemSimpleDto> searchByRelevance(List<String> terms, long documents, Pageable pageable) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String matches = IntStream.range(0, terms.size())
+                .mapToObj(i -> match().replace("{n}", String.valueOf(i)))
+                .collect(joining(" union all "));
+        Query query = entityManager.createNativeQuery(STATEMENT.replace("{matches}", matches))
+                .setParameter("documents", documents)
+                .setParameter("limit", pageable.getPageSize())
+                .setParameter("offset", pageable.getOffset());
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter("term" + i, terms.get(i));
+            query.setParameter("pattern" + i, "%" + terms.get(i) + "%");
+        }
+
+        return ((List<?>) query.getResultList()).stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new ItemSimpleDto(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        (Boolean) row[3],
+                        row[4] == null ? null : ((Number) row[4]).longValue()))
+                .collect(toList());
+    }
+
+    private String match() {
+        if (match == null) {
+            String similar;
+            String database = DatabaseProduct.of(entityManager);
+            switch (database) {
+                case "PostgreSQL":
+                    similar = POSTGRESQL_SIMILAR;
+                    break;
+                case "H2":
+                    similar = H2_SIMILAR;
+                    break;
+                default:
+                    throw new IllegalStateException("Relevance search is not supported on " + database);
+            }
+            match = MATCH
+                    .replace("{name similar}", similar.replace("{field}", "name"))
+                    .replace("{description similar}", similar.replace("{field}", "description"))
+                    .replace("{term}", "cast(:term{n} as varchar)");
+        }
+        return match;
+    }
+}
@@ -6,75 +6,74 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.search.ItemSearchDocument;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.request.entity.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemPatchRepository, ItemRelevanceRepository {
     @Query("select i from Item i where i.owner.id = ?1 order by i.id")
     List<Item> findAllByOwner_Id(Long id, Pageable pageable);
 
-    @Query("select i from Item i " +
+    @Query("select new ru.practicum.shareit.item.api.dto.ItemSimpleDto(" +
+            "i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r " +
             "where ( " +
             "upper(i.name) like upper(concat('%', :search, '%')) or upper(i.description) like upper(concat('%', :search, '%')) " +
             ") and i.available = true " +
             "order by i.id")
-    List<Item> searchItemByNameOrDescription(
+    List<ItemSimpleDto> searchItemByNameOrDescription(
             @Param("search") String text, Pageable pageable);
 
-    @Query("select not(count(i) > 0) from Item i where i.id = ?1 and i.owner.id = ?2")
-    boolean notExistsByIdAndOwner_Id(Long itemId, Long ownerId);
+    @Query("select new ru.practicum.shareit.item.api.search.ItemSearchDocument(i.id, i.name, i.description) " +
+            "from Item i where i.available = true and i.id > ?1 order by i.id")
+    List<ItemSearchDocument> findAllSearchDocuments(long afterId, Pageable pageable);
 
-    @Transactional
-    @Modifying
-    @Query("delete from Item i where i.id = ?1 and i.owner.id = ?2")
-    void deleteByIdAndOwner_Id(Long itemId, Long ownerId);
+    long countByAvailable(boolean available);
 
-    @Transactional
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Item i set i.name = :name, i.description = :description where i.id = :id")
-    void updateNameAndDescriptionById(
-            @Param("name") String name,
-            @Param("description") String description,
-            @Param("id") Long id);
+    @Query("select new ru.practicum.shareit.item.api.dto.ItemSimpleDto(" +
+            "i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r " +
+            "where i.id in ?1")
+    List<ItemSimpleDto> findAllSimpleByIdIn(Collection<Long> ids);
 
-    @Transactional
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Item i set i.name = :name, i.available = :available where i.id = :id")
-    void updateNameAndAvailableById(
-            @Param("name") String name,
-            @Param("available") boolean available,
-            @Param("id") Long id);
+    /**
+     * @param ids Item IDs
+     * @return Found items in the order of the IDs
+     */
+    default List<ItemSimpleDto> findAllSimpleInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemSimpleDto> items = findAllSimpleByIdIn(ids).stream()
+                .collect(toMap(ItemSimpleDto::getId, Function.identity()));
 
-    @Transactional
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Item i set i.description = :description, i.available = :available where i.id = :id")
-    void updateDescriptionAndAvailableById(
-            @Param("description") String description,
-            @Param("available") boolean available,
-            @Param("id") Long id);
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
 
     @Transactional
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Item i set i.name = :name where i.id = :id")
-    void updateNameById(
-            @Param("name") String name,
-            @Param("id") Long id);
+    @Modifying
+    @Query("delete from Item i where i.id = ?1 and i.owner.id = ?2")
+    void deleteByIdAndOwner_Id(Long itemId, Long ownerId);
 
-    @Transactional
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Item i set i.description = :description where i.id = :id")
-    void updateDescriptionById(
-            @Param("description") String description,
-            @Param("id") Long id);
+    @Query("select i from Item i join fetch i.owner left join fetch i.request where i.id = ?1")
+    Optional<Item> findWithOwnerAndRequestById(Long id);
 
-    @Transactional
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("update Item i set i.available = :available where i.id = :id")
-    void updateAvailableById(
-            @Param("available") boolean available,
-            @Param("id") Long id);
+    @Query("select i from Item i left join fetch i.request where i.id in ?1")
+    List<Item> findAllWithRequestByIdIn(Collection<Long> ids);
 
     @Query("select i from Item i where i.request.id = ?1")
     List<Item> getByRequest_Id(Long id);
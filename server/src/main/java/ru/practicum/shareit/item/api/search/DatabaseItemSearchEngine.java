@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.api.search;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Search in the database.
+ * <p>
+ * On PostgreSQL the {@code LIKE '%text%'} predicates and the trigram similarity
+ * are served by the trigram GIN indexes over available items.
+ * <p>
+ * {@link ItemSearchSort#RELEVANCE} finds, scores and pages the items matching any word of the text,
+ * exactly or with typos, in one statement ({@link ItemRepository#searchByRelevance}). <br/>
+ * The number of available items for the score is counted at most once per
+ * {@code shareit.search.documents.refresh-seconds}, the stale value is used while it is recounted.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final LoadingCache<Boolean, Long> itemCounts;
+
+    public DatabaseItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${shareit.search.documents.refresh-seconds:60}") long refreshSeconds) {
+        this.itemRepository = itemRepository;
+        this.itemCounts = Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .build(itemRepository::countByAvailable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemSimpleDto> search(String text, ItemSearchSort sort, Pageable pageable) {
+        if (sort == ItemSearchSort.ID) {
+
+            return itemRepository.searchItemByNameOrDescription(text, pageable);
+        }
+
+        return itemRepository.searchByRelevance(ItemRelevance.terms(text), itemCounts.get(true), pageable);
+    }
+}
@@ -0,0 +1,351 @@
+package ru.practicum.shareit.item.api.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Search in an in-process trigram index of available items.
+ * <p>
+ * {@code shareit.search.engine=memory}
+ * <p>
+ * Every trigram of the upper-cased name and description points to a sorted
+ * {@code long[]} of item IDs. A query intersects the lists of its trigrams,
+ * checks the substring on the candidates in ID order and loads
+ * only the items of the requested page from the database.
+ * Queries shorter than a trigram check every indexed item.
+ * {@link ItemSearchSort#RELEVANCE} ranks the items close to any word of the query
+ * with {@link ItemRelevance}.
+ * <p>
+ * The index is loaded from the database before the server accepts requests,
+ * so no search, and no page cached by {@link ItemSearchCache}, sees it empty.
+ * Changes are applied after their transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+    private static final int GRAM = 3;
+    private static final int LOAD_CHUNK = 10_000;
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Postings allIds = new Postings();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads all available items from the database.
+     * <p>
+     * Items are read in chunks by ascending ID and tokenized in parallel,
+     * so the posting lists are filled by appending.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            allIds.clear();
+            long afterId = 0;
+            List<ItemSearchDocument> chunk;
+            do {
+                chunk = itemRepository.findAllSearchDocuments(afterId, Pageable.ofSize(LOAD_CHUNK));
+                List<Document> tokenized = chunk.parallelStream()
+                        .map(Document::of)
+                        .collect(toList());
+                tokenized.forEach(this::add);
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == LOAD_CHUNK);
+            log.info("[i] Item search index rebuilt: {} items, {} trigrams", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemSimpleDto> search(String text, ItemSearchSort sort, Pageable pageable) {
+        List<Long> ids = sort == ItemSearchSort.ID
+                ? findIds(normalize(text), pageable.getOffset(), pageable.getPageSize())
+                : rankIds(ItemRelevance.terms(text), pageable);
+
+        return itemRepository.findAllSimpleInOrder(ids);
+    }
+
+    @Override
+    public void indexed(ItemSimpleDto item) {
+        Document document = Boolean.TRUE.equals(item.getAvailable())
+                ? Document.of(new ItemSearchDocument(item.getId(), item.getName(), item.getDescription()))
+                : null;
+        Long itemId = item.getId();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(itemId);
+                if (document != null) {
+                    add(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @return number of indexed items
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> findIds(String query, long offset, int size) {
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            if (query.length() < GRAM) {
+                lists.add(allIds);
+            } else {
+                for (long gram : grams(query)) {
+                    Postings list = postings.get(gram);
+                    if (list == null) {
+
+                        return List.of();
+                    }
+                    lists.add(list);
+                }
+                lists.sort(Comparator.comparingInt(Postings::size));
+            }
+
+            Postings shortest = lists.get(0);
+            List<Long> ids = new ArrayList<>(size);
+            long skipped = 0;
+            for (int i = 0; i < shortest.size() && ids.size() < size; i++) {
+                long id = shortest.get(i);
+                if (containsInAll(lists, id) && documents.get(id).contains(query)) {
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        ids.add(id);
+                    }
+                }
+            }
+
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Candidates of a word are the items sharing enough of its trigrams
+     * to be within {@link ItemRelevance#maxEdits} of it: one edit changes at most {@value #GRAM} trigrams.
+     */
+    private List<Long> rankIds(List<String> terms, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Set<Long> candidateIds = new HashSet<>();
+            for (String term : terms) {
+                candidateIds.addAll(findCandidates(term));
+            }
+            List<ItemSearchDocument> candidates = candidateIds.stream()
+                    .map(documents::get)
+                    .map(document -> new ItemSearchDocument(document.id, document.name, document.description))
+                    .collect(toList());
+
+            return ItemRelevance.rank(candidates, terms, documents.size(), pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> findCandidates(String term) {
+        long[] termGrams = grams(term);
+        if (termGrams.length == 0) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < allIds.size(); i++) {
+                if (documents.get(allIds.get(i)).contains(term)) {
+                    ids.add(allIds.get(i));
+                }
+            }
+            return ids;
+        }
+        int hitsMin = Math.max(1, termGrams.length - GRAM * ItemRelevance.maxEdits(term));
+        Map<Long, Integer> hits = new HashMap<>();
+        for (long gram : termGrams) {
+            Postings list = postings.get(gram);
+            for (int i = 0; list != null && i < list.size(); i++) {
+                hits.merge(list.get(i), 1, Integer::sum);
+            }
+        }
+
+        return hits.entrySet().stream()
+                .filter(hit -> hit.getValue() >= hitsMin)
+                .map(Map.Entry::getKey)
+                .collect(toList());
+    }
+
+    private static boolean containsInAll(List<Postings> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Document document) {
+        long id = document.id;
+        documents.put(id, document);
+        allIds.add(id);
+        for (long gram : document.grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        allIds.remove(id);
+        for (long gram : document.grams) {
+            Postings list = postings.get(gram);
+            list.remove(id);
+            if (list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @param text upper-cased text
+     * @return distinct trigrams, three chars packed into a long
+     */
+    private static long[] grams(String text) {
+        int count = text.length() - GRAM + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32)
+                    | ((long) text.charAt(i + 1) << 16)
+                    | text.charAt(i + 2);
+        }
+
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Upper-cased text of an item and the trigrams of name and description.
+     */
+    private static final class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final long[] grams;
+
+        private Document(long id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.grams = Arrays.stream(new long[][]{grams(name), grams(description)})
+                    .flatMapToLong(Arrays::stream)
+                    .distinct()
+                    .toArray();
+        }
+
+        static Document of(ItemSearchDocument item) {
+            return new Document(item.getId(), normalize(item.getName()), normalize(item.getDescription()));
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+
+    /**
+     * Sorted list of item IDs without boxing.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int position = size == 0 || ids[size - 1] < id
+                    ? -(size + 1)
+                    : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertion = -(position + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        void clear() {
+            ids = new long[4];
+            size = 0;
+        }
+    }
+}
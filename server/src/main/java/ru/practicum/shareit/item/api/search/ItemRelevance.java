@@ -0,0 +1,215 @@
+package ru.practicum.shareit.item.api.search;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * BM25F ranking of items by the words of a query.
+ * <p>
+ * A query word matches a word of the item if it is a substring of it
+ * or differs from it by at most {@link #maxEdits} edits (Levenshtein);
+ * a fuzzy match counts as {@code 1 / (1 + edits)} occurrence. <br/>
+ * Occurrences in the name weigh {@value #NAME_WEIGHT} times more than in the description.
+ * Field lengths are normalised by the average over the candidates.
+ * <p>
+ * The database engine computes the same score in SQL,
+ * see {@link ru.practicum.shareit.item.api.repository.ItemRelevanceRepositoryImpl}.
+ */
+public final class ItemRelevance {
+    public static final double NAME_WEIGHT = 2.0;
+    public static final double DESCRIPTION_WEIGHT = 1.0;
+    public static final double K1 = 1.2;
+    public static final double B = 0.75;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ItemRelevance() {
+    }
+
+    /**
+     * @param text Query or field text
+     * @return distinct upper-cased words
+     */
+    public static List<String> terms(String text) {
+        return Arrays.stream(words(text))
+                .distinct()
+                .collect(toList());
+    }
+
+    /**
+     * @param term Upper-cased query word
+     * @return allowed edits: none up to 3 letters, one up to 7, two for longer words
+     */
+    public static int maxEdits(String term) {
+        int length = term.length();
+        if (length <= 3) {
+            return 0;
+        }
+        return length <= 7 ? 1 : 2;
+    }
+
+    /**
+     * @param terms       Query words, see {@link #terms}
+     * @param name        Item name
+     * @param description Item description
+     * @return true if the item would be scored for at least one term
+     */
+    public static boolean matches(List<String> terms, String name, String description) {
+        String[] nameWords = words(name);
+        String[] descriptionWords = words(description);
+        for (String term : terms) {
+            if (occurrences(term, nameWords) > 0 || occurrences(term, descriptionWords) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scores the candidates and returns the requested page of their IDs.
+     *
+     * @param candidates Items matching at least one term
+     * @param terms      Query words, see {@link #terms}
+     * @param total      Number of searchable items, for the inverse document frequency
+     * @param pageable   Page of the ranked list
+     * @return IDs by descending score, then by ID
+     */
+    public static List<Long> rank(Collection<ItemSearchDocument> candidates,
+                                  List<String> terms,
+                                  long total,
+                                  Pageable pageable) {
+        List<Scored> scored = new ArrayList<>(candidates.size());
+        double nameLength = 0;
+        double descriptionLength = 0;
+        for (ItemSearchDocument candidate : candidates) {
+            Scored item = new Scored(candidate.getId(),
+                    words(candidate.getName()), words(candidate.getDescription()), terms.size());
+            nameLength += item.name.length;
+            descriptionLength += item.description.length;
+            scored.add(item);
+        }
+        if (scored.isEmpty()) {
+
+            return List.of();
+        }
+        double averageName = Math.max(1, nameLength / scored.size());
+        double averageDescription = Math.max(1, descriptionLength / scored.size());
+
+        int[] frequency = new int[terms.size()];
+        for (Scored item : scored) {
+            for (int t = 0; t < terms.size(); t++) {
+                double occurrences = NAME_WEIGHT * occurrences(terms.get(t), item.name)
+                        / normalisation(item.name.length, averageName)
+                        + DESCRIPTION_WEIGHT * occurrences(terms.get(t), item.description)
+                        / normalisation(item.description.length, averageDescription);
+                item.occurrences[t] = occurrences;
+                if (occurrences > 0) {
+                    frequency[t]++;
+                }
+            }
+        }
+        long documents = Math.max(total, scored.size());
+        for (Scored item : scored) {
+            for (int t = 0; t < terms.size(); t++) {
+                double occurrences = item.occurrences[t];
+                double idf = Math.log(1 + (documents - frequency[t] + 0.5) / (frequency[t] + 0.5));
+                item.score += idf * occurrences * (K1 + 1) / (occurrences + K1);
+            }
+        }
+
+        return scored.stream()
+                .filter(item -> item.score > 0)
+                .sorted(Comparator.comparingDouble((Scored item) -> -item.score)
+                        .thenComparingLong(item -> item.id))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(item -> item.id)
+                .collect(toList());
+    }
+
+    /**
+     * @param term  Query word
+     * @param word  Item word
+     * @param bound Allowed edits
+     * @return Levenshtein distance, or {@code bound + 1} if it is greater than {@code bound}
+     */
+    static int editDistance(String term, String word, int bound) {
+        if (Math.abs(term.length() - word.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[word.length() + 1];
+        int[] current = new int[word.length() + 1];
+        for (int j = 0; j <= word.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= term.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= word.length(); j++) {
+                int substitution = previous[j - 1] + (term.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return Math.min(previous[word.length()], bound + 1);
+    }
+
+    private static double occurrences(String term, String[] words) {
+        int bound = maxEdits(term);
+        double occurrences = 0;
+        for (String word : words) {
+            if (word.contains(term)) {
+                occurrences += 1;
+            } else if (bound > 0) {
+                int edits = editDistance(term, word, bound);
+                if (edits <= bound) {
+                    occurrences += 1.0 / (1 + edits);
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    private static double normalisation(int length, double average) {
+        return 1 - B + B * length / average;
+    }
+
+    private static String[] words(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return Arrays.stream(WORD_SEPARATOR.split(text.toUpperCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static final class Scored {
+        private final long id;
+        private final String[] name;
+        private final String[] description;
+        private final double[] occurrences;
+        private double score;
+
+        private Scored(long id, String[] name, String[] description, int terms) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.occurrences = new double[terms];
+        }
+    }
+}
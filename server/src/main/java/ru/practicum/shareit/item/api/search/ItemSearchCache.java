@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item.api.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of search result pages.
+ * <p>
+ * Keyed by the normalised text, the sort and the page.
+ * Bounded by the estimated size of the cached items
+ * ({@code shareit.search.cache.maximum-weight}, bytes) with W-TinyLFU eviction.
+ * <p>
+ * A change of an item evicts only the pages of the texts
+ * matching the item before or after the change.
+ * A page loaded while any item changed is not kept: it may have been read before the change
+ * and stored after its eviction.
+ * Hits, misses and evictions are published as {@code cache.*} metrics
+ * with the tag {@code cache=itemSearch}.
+ */
+@Component
+public class ItemSearchCache {
+    static final String NAME = "itemSearch";
+    private static final int ENTRY_WEIGHT = 64;
+    private static final int ITEM_WEIGHT = 48;
+    private final Cache<Key, List<ItemSimpleDto>> cache;
+    private final AtomicLong changes = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.search.cache.maximum-weight:16777216}") long maximumWeight,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(ItemSearchCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * @param text     Search text
+     * @param sort     Order of the items
+     * @param pageable Pageable
+     * @param search   Search on a miss
+     * @return Cached or found items
+     */
+    public List<ItemSimpleDto> get(String text,
+                                   ItemSearchSort sort,
+                                   Pageable pageable,
+                                   Supplier<List<ItemSimpleDto>> search) {
+        Key key = new Key(normalize(text, sort), sort, pageable.getOffset(), pageable.getPageSize());
+        long changesBefore = changes.get();
+        AtomicBoolean loaded = new AtomicBoolean();
+
+        List<ItemSimpleDto> items = cache.get(key, ignored -> {
+            loaded.set(true);
+            return List.copyOf(search.get());
+        });
+        if (loaded.get() && changes.get() != changesBefore) {
+            cache.asMap().remove(key, items);
+        }
+        return items;
+    }
+
+    /**
+     * Evicts, after the transaction commits, the pages that could contain the item.
+     *
+     * @param before Item before the change, null if created
+     * @param after  Item after the change
+     */
+    public void evict(ItemSimpleDto before, ItemSimpleDto after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            changes.incrementAndGet();
+            boolean availabilityChanged = before == null
+                    || !Objects.equals(before.getAvailable(), after.getAvailable());
+            Map<Key, Boolean> affected = new HashMap<>();
+            cache.asMap().keySet().removeIf(key -> affected.computeIfAbsent(
+                    new Key(key.text, key.sort, 0, 0),
+                    text -> isAffected(text, before, availabilityChanged)
+                            || isAffected(text, after, availabilityChanged)));
+        });
+    }
+
+    /**
+     * Relevance depends on the number of available items,
+     * so a change of availability evicts every relevance page.
+     */
+    private static boolean isAffected(Key key, ItemSimpleDto item, boolean availabilityChanged) {
+        if (key.sort == ItemSearchSort.RELEVANCE && availabilityChanged) {
+            return true;
+        }
+        if (item == null || !Boolean.TRUE.equals(item.getAvailable())) {
+            return false;
+        }
+        if (key.sort == ItemSearchSort.RELEVANCE) {
+            return ItemRelevance.matches(ItemRelevance.terms(key.text), item.getName(), item.getDescription());
+        }
+        return normalize(item.getName()).contains(key.text)
+                || normalize(item.getDescription()).contains(key.text);
+    }
+
+    private static String normalize(String text, ItemSearchSort sort) {
+        return sort == ItemSearchSort.RELEVANCE
+                ? String.join(" ", ItemRelevance.terms(text))
+                : normalize(text);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static int weigh(Key key, List<ItemSimpleDto> items) {
+        int weight = ENTRY_WEIGHT + 2 * key.text.length();
+        for (ItemSimpleDto item : items) {
+            weight += ITEM_WEIGHT + 2 * (length(item.getName()) + length(item.getDescription()));
+        }
+        return weight;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    static final class Key {
+        private final String text;
+        private final ItemSearchSort sort;
+        private final long offset;
+        private final int size;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.api.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Searchable text of an available item.
+ * <p>
+ * Selected by {@link ru.practicum.shareit.item.api.repository.ItemRepository#findAllSearchDocuments}
+ * without loading the entity.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemSearchDocument {
+    private final Long id;
+    private final String name;
+    private final String description;
+}
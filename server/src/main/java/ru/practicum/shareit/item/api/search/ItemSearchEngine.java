@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.api.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+
+import java.util.List;
+
+/**
+ * Search of available items by a substring of the name or the description.
+ * <p>
+ * Case-insensitive, ordered by {@link ItemSearchSort}.
+ * <p>
+ * {@code shareit.search.engine}: <br/>
+ * {@code database} {@link DatabaseItemSearchEngine} (default) <br/>
+ * {@code memory} {@link InMemoryItemSearchEngine}
+ */
+public interface ItemSearchEngine {
+    /**
+     * @param text     Not blank substring
+     * @param sort     Order of the items
+     * @param pageable Pageable
+     * @return Found items
+     */
+    List<ItemSimpleDto> search(String text, ItemSearchSort sort, Pageable pageable);
+
+    /**
+     * Called after the item was created or updated.
+     *
+     * @param item Saved item
+     */
+    default void indexed(ItemSimpleDto item) {
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.api.search;
+
+/**
+ * Order of the search results:
+ * <ul>
+ *     <li>ID - items containing the text, by ID</li>
+ *     <li>RELEVANCE - items matching any word of the text, exactly or with typos,
+ *     by {@link ItemRelevance} score</li>
+ * </ul>
+ */
+public enum ItemSearchSort {
+    ID,
+    RELEVANCE
+}
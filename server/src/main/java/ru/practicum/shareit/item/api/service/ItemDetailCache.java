@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.api.dto.BookingItemDto;
+import ru.practicum.shareit.item.api.dto.ItemDto;
+import ru.practicum.shareit.item.api.search.AfterCommit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@code /items/{id}}.
+ * <p>
+ * {@code itemDetail} The item with its comments and its owner, the same for every user <br/>
+ * {@code itemBookings} The last and next bookings shown to the owner, keyed by the item
+ * and the time bucket ({@code shareit.items.cache.booking-bucket-seconds}):
+ * a booking starting within the bucket may be shown as the next one until the bucket ends <br/>
+ * <p>
+ * Both are bounded by {@code shareit.items.cache.maximum-size} entries and evicted
+ * after the transaction of the change commits.
+ * Hits, misses and evictions are published as {@code cache.*} metrics
+ * with the tags {@code cache=itemDetail} and {@code cache=itemBookings}.
+ */
+@Component
+public class ItemDetailCache {
+    static final String DETAIL = "itemDetail";
+    static final String BOOKINGS = "itemBookings";
+    private final Cache<Long, Detail> details;
+    private final Cache<BookingsKey, Bookings> bookings;
+    private final long bucketSeconds;
+
+    public ItemDetailCache(@Value("${shareit.items.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.items.cache.booking-bucket-seconds:60}") long bucketSeconds,
+                           MeterRegistry meterRegistry) {
+        this.bucketSeconds = bucketSeconds;
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.bookings = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(bucketSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, DETAIL);
+        CaffeineCacheMetrics.monitor(meterRegistry, bookings, BOOKINGS);
+    }
+
+    /**
+     * @param itemId Item ID
+     * @param load   Item and comments on a miss
+     * @return Cached or loaded item, must not be changed
+     */
+    public Detail getDetail(Long itemId, Supplier<Detail> load) {
+        return details.get(itemId, ignored -> load.get());
+    }
+
+    /**
+     * @param itemId Item ID
+     * @param now    Time of the request
+     * @param load   Last and next bookings on a miss
+     * @return Cached or loaded bookings
+     */
+    public Bookings getBookings(Long itemId, LocalDateTime now, Supplier<Bookings> load) {
+        return bookings.get(new BookingsKey(itemId, bucket(now)), ignored -> load.get());
+    }
+
+    /**
+     * Evicts the item and its comments after the transaction commits.
+     *
+     * @param itemId Item ID
+     */
+    public void evictDetail(Long itemId) {
+        AfterCommit.run(() -> details.invalidate(itemId));
+    }
+
+    /**
+     * Evicts the last and next bookings of the items after the transaction commits.
+     * Only the current bucket can be read, the previous one is evicted
+     * in case the change committed right at the bucket edge.
+     *
+     * @param itemIds Item IDs
+     */
+    public void evictBookings(Collection<Long> itemIds) {
+        AfterCommit.run(() -> {
+            long bucket = bucket(LocalDateTime.now());
+            for (Long itemId : itemIds) {
+                bookings.invalidateAll(List.of(
+                        new BookingsKey(itemId, bucket),
+                        new BookingsKey(itemId, bucket - 1)));
+            }
+        });
+    }
+
+    /**
+     * Evicts everything after the transaction commits:
+     * a change of a user changes the owners and the comment authors of many items.
+     */
+    public void evictAll() {
+        AfterCommit.run(() -> {
+            details.invalidateAll();
+            bookings.invalidateAll();
+        });
+    }
+
+    private long bucket(LocalDateTime now) {
+        return now.toEpochSecond(ZoneOffset.UTC) / bucketSeconds;
+    }
+
+    /**
+     * Item as every user sees it.
+     * <p>
+     * {@code ownerId} Owner of the item, decides who sees the bookings <br/>
+     * {@code item} Item without bookings, with comments
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static final class Detail {
+        private final Long ownerId;
+        private final ItemDto item;
+    }
+
+    /**
+     * {@code last} Last booking, null if none <br/>
+     * {@code next} Next booking, null if none
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static final class Bookings {
+        private final BookingItemDto last;
+        private final BookingItemDto next;
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class BookingsKey {
+        private final Long itemId;
+        private final long bucket;
+    }
+}
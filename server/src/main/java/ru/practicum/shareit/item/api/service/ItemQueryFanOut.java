@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.VirtualThreads;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Independent read-only queries of one request.
+ * <p>
+ * {@code shareit.items.fan-out.enabled=true} runs them concurrently on a bounded pool
+ * ({@code shareit.items.fan-out.threads}, {@code shareit.items.fan-out.queue}),
+ * each in its own read-only transaction and so on its own connection;
+ * a full queue makes the caller wait for room up to {@code shareit.items.fan-out.wait-millis},
+ * then the request fails with {@link ServiceUnavailableException} (503).
+ * The pool threads are virtual with {@code shareit.virtual-threads.enabled=true}.
+ * Otherwise they run one after another in the calling thread.
+ * <p>
+ * The caller must not hold a connection while it waits for the pool:
+ * with as many such callers as connections, the queries would wait for a connection forever.
+ * So the request is run by {@link #read(Supplier)}: with the pool, in no transaction and with no query
+ * of its own, every query of the request is submitted; without it, in one read-only transaction
+ * that all its queries join.
+ * A caller inside a transaction has its queries run in that transaction, one after another.
+ * <p>
+ * Metrics, tagged with the operation and the mode: <br/>
+ * {@code items.fanout.query} Time of every query <br/>
+ * {@code items.fanout.wall} Time of all queries of a request <br/>
+ * {@code items.fanout.saved} Query time minus wall time <br/>
+ * {@code executor.*} with {@code name=itemFanOut} Pool usage; connection usage is
+ * in {@code hikaricp.connections.*}
+ */
+@Slf4j
+@Component
+public class ItemQueryFanOut {
+    static final String NAME = "itemFanOut";
+    private static final String NAME_PREFIX = "item-fan-out-";
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry meterRegistry;
+    private final String mode;
+
+    public ItemQueryFanOut(@Value("${shareit.items.fan-out.enabled:false}") boolean enabled,
+                           @Value("${shareit.items.fan-out.threads:4}") int threads,
+                           @Value("${shareit.items.fan-out.queue:64}") int queue,
+                           @Value("${shareit.items.fan-out.wait-millis:1000}") long waitMillis,
+                           @Value("${shareit.virtual-threads.enabled:false}") boolean virtualThreads,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.mode = enabled ? "parallel" : "sequential";
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        if (enabled) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queue),
+                    virtualThreads ? VirtualThreads.factory(NAME_PREFIX) : threadFactory(),
+                    waitForRoom(waitMillis));
+            this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, NAME);
+            log.info("[i] Item queries fan out on {} {}threads", threads, virtualThreads ? "virtual " : "");
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Runs a request whose queries are all submitted to {@link #batch(String)}.
+     *
+     * @param request Request
+     * @return Result of the request
+     */
+    public <T> T read(Supplier<T> request) {
+        return executor == null
+                ? readOnly.execute(status -> request.get())
+                : request.get();
+    }
+
+    /**
+     * @param operation Name of the request, metrics tag
+     * @return Queries of one request
+     */
+    public Batch batch(String operation) {
+        return new Batch(operation);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Running the query in the caller would take a connection, the caller holds none while it waits.
+     * The wait is bounded, so that a stalled database sheds requests instead of piling up callers.
+     */
+    private static RejectedExecutionHandler waitForRoom(long waitMillis) {
+        return (runnable, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Item fan-out pool is shut down");
+            }
+            boolean queued;
+            try {
+                queued = pool.getQueue().offer(runnable, waitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(e);
+            }
+            if (!queued) {
+                throw new ServiceUnavailableException(
+                        "Item queries are busy, no room in " + waitMillis + " ms, try again later");
+            }
+        };
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, NAME_PREFIX + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public final class Batch {
+        private final String operation;
+        private final long started = System.nanoTime();
+        private final AtomicLong queries = new AtomicLong();
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        private Batch(String operation) {
+            this.operation = operation;
+        }
+
+        /**
+         * @param query Read-only query
+         * @return Result, complete after {@link #await()}
+         */
+        public <T> CompletableFuture<T> submit(Supplier<T> query) {
+            CompletableFuture<T> future = executor == null || TransactionSynchronizationManager.isActualTransactionActive()
+                    ? CompletableFuture.completedFuture(readOnly.execute(status -> timed(query)))
+                    : CompletableFuture.supplyAsync(() -> readOnly.execute(status -> timed(query)), executor);
+            futures.add(future);
+
+            return future;
+        }
+
+        /**
+         * Waits for all queries and rethrows the first failure.
+         */
+        public void await() {
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            long wall = System.nanoTime() - started;
+            timer("items.fanout.wall").record(wall, TimeUnit.NANOSECONDS);
+            timer("items.fanout.saved").record(Math.max(0, queries.get() - wall), TimeUnit.NANOSECONDS);
+        }
+
+        private <T> T timed(Supplier<T> query) {
+            long start = System.nanoTime();
+            try {
+                return query.get();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                queries.addAndGet(elapsed);
+                timer("items.fanout.query").record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private Timer timer(String name) {
+            return meterRegistry.timer(name, "operation", operation, "mode", mode);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import ru.practicum.shareit.item.api.dto.CommentDto;
 import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.search.ItemSearchSort;
+import ru.practicum.shareit.pageable.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,7 +20,9 @@ public interface ItemService {
 
     List<ItemDto> getAll(Long userId, Pageable pageable, LocalDateTime now);
 
-    List<ItemSimpleDto> search(String searchText, Pageable pageable);
+    List<ItemSimpleDto> search(String searchText, ItemSearchSort sort, Pageable pageable);
 
     CommentDto createComment(CommentSimpleDto commentSimpleDto);
+
+    List<CommentDto> getComments(Long userId, Long itemId, Cursor cursor, Integer size);
 }
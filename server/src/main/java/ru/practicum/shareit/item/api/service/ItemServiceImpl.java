@@ -2,12 +2,14 @@ package ru.practicum.shareit.item.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.api.dto.BookingItemDto;
 import ru.practicum.shareit.booking.api.dto.BookingMapper;
+import ru.practicum.shareit.booking.api.repository.BookingItemView;
 import ru.practicum.shareit.booking.api.repository.BookingRepository;
 import ru.practicum.shareit.constants.Constants;
 import ru.practicum.shareit.exception.BadRequestException;
@@ -19,25 +21,34 @@ import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemMapper;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
 import ru.practicum.shareit.item.api.repository.CommentRepository;
+import ru.practicum.shareit.item.api.repository.ItemCommentPreview;
+import ru.practicum.shareit.item.api.repository.ItemCommentView;
+import ru.practicum.shareit.item.api.repository.ItemPatch;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.search.ItemSearchCache;
+import ru.practicum.shareit.item.api.search.ItemSearchEngine;
+import ru.practicum.shareit.item.api.search.ItemSearchSort;
 import ru.practicum.shareit.item.entity.CommentEntity;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.pageable.Cursor;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.constants.Constants.ITEM_NOT_EXISTS;
 
@@ -46,16 +57,22 @@ import static ru.practicum.shareit.constants.Constants.ITEM_NOT_EXISTS;
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
-    private final Sort sortStartAsc =
-            Sort.by(Sort.Direction.ASC, "start");
-    private final Sort sortStartDesc =
-            Sort.by(Sort.Direction.DESC, "start");
+    private static final String NOT_OWNER = "Editing an item is only allowed to the owner of that item.";
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
 
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemQueryFanOut itemQueryFanOut;
+    private final ItemDetailCache itemDetailCache;
+    /**
+     * Newest comments embedded into an item, 0 - all of them.
+     */
+    @Value("${shareit.items.comments.preview-size:0}")
+    private int commentPreviewSize;
 
     /**
      * Создание предмета
@@ -82,7 +99,10 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
 
-        return ItemMapper.INSTANCE.toDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        indexed(null, ItemMapper.INSTANCE.toSimpleDto(saved));
+
+        return ItemMapper.INSTANCE.toDto(saved);
     }
 
     /**
@@ -94,6 +114,8 @@ public class ItemServiceImpl implements ItemService {
      *     <li>{@link ItemDto#description} Description</li>
      *     <li>{@link ItemDto#available} Visibility for all users</li>
      * </ul>
+     * Any combination of the fields is written by one UPDATE restricted to the owner;
+     * the user and the item are only looked up to explain a rejected update.
      *
      * @param ownerId Идентификатор владелец предмета
      * @param itemId  Идентификатор предмета
@@ -109,76 +131,77 @@ public class ItemServiceImpl implements ItemService {
         String name = itemDto.getName();
         String description = itemDto.getDescription();
         Boolean available = itemDto.getAvailable();
-
-        checkingExistUserById(ownerId);
-
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(
-                        () -> new NotFoundException(
-                                format(ITEM_NOT_EXISTS, itemId)));
-
-        boolean isNotOwner = itemRepository.notExistsByIdAndOwner_Id(itemId, ownerId);
-        if (isNotOwner) {
-            throw new BadRequestException("Editing an item is only allowed to the owner of that item.");
-        }
-
-        boolean notNullDescription = !(description == null || description.isEmpty());
         boolean notNullName = !(name == null || name.isBlank());
+        boolean notNullDescription = !(description == null || description.isEmpty());
 
-        if (notNullName && notNullDescription && available != null) {
+        if (!notNullName && !notNullDescription && available == null) {
+            checkingExistUserById(ownerId);
+            Item item = itemRepository.findById(itemId)
+                    .orElseThrow(
+                            () -> new NotFoundException(
+                                    format(ITEM_NOT_EXISTS, itemId)));
+            if (!item.getOwner().getId().equals(ownerId)) {
+                throw new BadRequestException(NOT_OWNER);
+            }
 
-            return ItemMapper.INSTANCE.toDto(
-                    itemRepository.save(
-                            ItemMapper.INSTANCE.toEntity(itemDto, ownerId)));
+            return ItemMapper.INSTANCE.toDto(item);
         }
 
-        return ItemMapper.INSTANCE.toDto(
-                partiallyUpdated(itemId, name, description, available, item));
+        log.debug("[i] Name = {}, Description = {}, Available = {};",
+                notNullName ? name : null, notNullDescription ? description : null, available);
+        ItemPatch patch = itemRepository.patch(itemId, ownerId,
+                        notNullName ? name : null,
+                        notNullDescription ? description : null,
+                        available)
+                .orElseThrow(() -> {
+                    checkingExistUserById(ownerId);
+                    checkingExistItemById(itemId);
+                    return new BadRequestException(NOT_OWNER);
+                });
+        indexed(patch.getBefore(), patch.getAfter());
+        itemDetailCache.evictDetail(itemId);
+
+        return ItemMapper.INSTANCE.simpleToDto(patch.getAfter());
     }
 
     /**
      * Receiving an item with the latest booking and comments.
      * Target:
      * {@code (/items/{id})}
+     * <p>
+     * Read through {@link ItemDetailCache}. On a miss the item with its owner and request, the comments
+     * with the author names, the last and next bookings and the user check are independent queries
+     * of one {@link ItemQueryFanOut} batch; the bookings are dropped if the user is not the owner.
+     * On a hit only the bookings for the owner or the user check for the others are queried.
+     * <p>
+     * In the preview mode ({@code shareit.items.comments.preview-size} above 0)
+     * only the newest comments and their total number are embedded,
+     * the rest are paged by {@link #getComments(Long, Long, Cursor, Integer)}.
      *
      * @param userId User ID
      * @param itemId Item ID
      * @return Item with/without Booking
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ItemDto get(Long userId, Long itemId) {
+        return itemQueryFanOut.read(() -> loadItem(userId, itemId, LocalDateTime.now()));
+    }
+
+    private ItemDto loadItem(Long userId, Long itemId, LocalDateTime now) {
+        DetailQueries queries = new DetailQueries(userId, itemId, now);
+        ItemDetailCache.Detail detail = itemDetailCache.getDetail(itemId, queries::detail);
+        boolean isUserByOwnerByItem = detail.getOwnerId().equals(userId);
+        if (!isUserByOwnerByItem && !queries.userExists()) {
+            throw new NotFoundException(format(Constants.USER_NOT_EXISTS, userId));
+        }
+        ItemDto itemDto = detail.getItem().toBuilder().build();
 
-        checkingExistUserById(userId);
-        LocalDateTime now = LocalDateTime.now();
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() ->
-                        new NotFoundException(String.format(ITEM_NOT_EXISTS, itemId)));
-        ItemDto itemDto = ItemMapper.INSTANCE.toDto(item);
-
-        BookingItemDto lastBooking = bookingRepository
-                .findFirstByItem_IdAndStartLessThanEqualAndStatus(itemId, now, APPROVED, sortStartDesc)
-                .stream()
-                .map(BookingMapper.INSTANCE::toItemDto)
-                .findFirst()
-                .orElse(null);
-        BookingItemDto nextBooking = bookingRepository
-                .findFirstByItem_IdAndStartAfterAndStatus(itemId, now, APPROVED, sortStartAsc)
-                .stream()
-                .map(BookingMapper.INSTANCE::toItemDto)
-                .findFirst()
-                .orElse(null);
-        List<CommentDto> comments = commentRepository
-                .findAllByItem_IdOrderByCreatedDesc(itemId)
-                .stream()
-                .map(CommentMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
-
-        boolean isUserByOwnerByItem = item.getOwner().getId().equals(userId);
         if (isUserByOwnerByItem) {
-            itemDto.setLastBooking(lastBooking);
-            itemDto.setNextBooking(nextBooking);
+            ItemDetailCache.Bookings bookings = itemDetailCache.getBookings(itemId, now, queries::bookings);
+            itemDto.setLastBooking(bookings.getLast());
+            itemDto.setNextBooking(bookings.getNext());
         }
-        itemDto.setComments(comments);
 
         return itemDto;
     }
@@ -192,71 +215,91 @@ public class ItemServiceImpl implements ItemService {
      * @param pageable Постранично
      * @param now      Точное время
      * @return List of user's items
+     * @see ItemQueryFanOut bookings and comments of the page are independent queries;
+     * one read-only transaction when they run one after another, none when they fan out
      */
-
-    @Transactional(readOnly = true)
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ItemDto> getAll(Long ownerId, Pageable pageable, LocalDateTime now) {
-        checkingExistUserById(ownerId);
-        List<ItemDto> itemsDto = itemRepository.findAllByOwner_Id(ownerId, pageable)
-                .stream()
-                .map(ItemMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
+        return itemQueryFanOut.read(() -> loadAll(ownerId, pageable, now));
+    }
+
+    private List<ItemDto> loadAll(Long ownerId, Pageable pageable, LocalDateTime now) {
+        ItemQueryFanOut.Batch page = itemQueryFanOut.batch("getAll.page");
+        CompletableFuture<List<ItemDto>> items = page.submit(() -> {
+            checkingExistUserById(ownerId);
+            return itemRepository.findAllByOwner_Id(ownerId, pageable)
+                    .stream()
+                    .map(ItemMapper.INSTANCE::toDto)
+                    .collect(Collectors.toList());
+        });
+        page.await();
+        List<ItemDto> itemsDto = items.join();
+        if (itemsDto.isEmpty()) {
+
+            return itemsDto;
+        }
 
         List<Long> itemIds = itemsDto.stream()
                 .map(ItemDto::getId)
                 .collect(toList());
 
-        Map<Long, BookingItemDto> lastBookingStorage = bookingRepository
-                .findByItem_IdInAndStartLessThanEqualAndStatus(
-                        itemIds, now, APPROVED, sortStartDesc)
-                .stream()
-                .map(BookingMapper.INSTANCE::toItemDto)
-                .collect(toMap(BookingItemDto::getItemId,
-                        Function.identity(),
-                        (first, second) -> first));
-
-        Map<Long, BookingItemDto> nextBookingStorage = bookingRepository
-                .findByItem_IdInAndStartAfterAndStatus(
-                        itemIds, now, APPROVED, sortStartAsc)
-                .stream()
-                .map(BookingMapper.INSTANCE::toItemDto)
-                .collect(toMap(BookingItemDto::getItemId,
-                        Function.identity(),
-                        (first, second) -> first));
-
-        Map<Long, List<CommentEntity>> commentStorage = commentRepository
-                .findByItem_IdInOrderByCreatedDesc(itemIds)
-                .stream()
-                .filter(Objects::nonNull)
-                .collect(groupingBy((comment) -> comment.getItem().getId(), toList()));
+        ItemQueryFanOut.Batch batch = itemQueryFanOut.batch("getAll");
+        CompletableFuture<List<BookingItemView>> bookings = batch.submit(
+                () -> bookingRepository.findLastAndNextByItemIdIn(itemIds, now));
+        boolean commentPreview = commentPreviewSize > 0;
+        CompletableFuture<List<ItemCommentPreview>> preview = commentPreview
+                ? batch.submit(() -> commentRepository.findPreviewByItem_IdIn(itemIds, commentPreviewSize))
+                : null;
+        CompletableFuture<List<ItemCommentView>> comments = commentPreview
+                ? null
+                : batch.submit(() -> commentRepository.findAllViewByItem_IdIn(itemIds));
+        batch.await();
+
+        Map<Long, BookingItemDto> lastBookingStorage = new HashMap<>();
+        Map<Long, BookingItemDto> nextBookingStorage = new HashMap<>();
+        bookings.join().forEach(booking ->
+                (booking.getStart().isAfter(now) ? nextBookingStorage : lastBookingStorage)
+                        .put(booking.getItemId(), BookingMapper.INSTANCE.viewToItemDto(booking)));
 
         itemsDto.forEach(itemDto -> {
             Long itemId = itemDto.getId();
             itemDto.setLastBooking(lastBookingStorage.get(itemId));
             itemDto.setNextBooking(nextBookingStorage.get(itemId));
-            itemDto.setComments(getCommentDto(commentStorage.get(itemId)));
         });
+        if (commentPreview) {
+            setCommentPreview(itemsDto, preview.join());
+        } else {
+            Map<Long, List<CommentDto>> commentStorage = comments.join()
+                    .stream()
+                    .collect(groupingBy(ItemCommentView::getItemId,
+                            mapping(CommentMapper.INSTANCE::viewToDto, toList())));
+            itemsDto.forEach(itemDto -> itemDto.setComments(commentStorage.get(itemDto.getId())));
+        }
 
         return itemsDto;
     }
 
     /**
-     * Creating a list of comments for the backend
+     * Comments of an item, newest first, page by page.
+     * {@code (/items/{id}/comments)}
      *
-     * @param comments comments from DB
-     * @return list of comments for the backend
+     * @param userId User ID
+     * @param itemId Item ID
+     * @param cursor Last comment seen by the client, null for the first page
+     * @param size   Page size
+     * @return Page of the comments
      */
-    private List<CommentDto> getCommentDto(
-            List<CommentEntity> comments) {
-        if (comments == null) {
-
-            return null;
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(Long userId, Long itemId, Cursor cursor, Integer size) {
+        checkingExistUserById(userId);
+        checkingExistItemById(itemId);
+        Pageable pageable = Pageable.ofSize(size);
 
-        return comments.stream()
-                .map(CommentMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
+        return cursor == null
+                ? commentRepository.findPageByItem_Id(itemId, pageable)
+                : commentRepository.findPageByItem_IdAfter(itemId, cursor.getPosition(), cursor.getId(), pageable);
     }
 
     /**
@@ -265,22 +308,20 @@ public class ItemServiceImpl implements ItemService {
      * If the query string is empty, output an empty list
      *
      * @param searchText текст для поиска
+     * @param sort       Порядок: по ID или по релевантности
      * @param pageable   Постранично
      * @return Список найденных вещей
      */
     @Override
-    public List<ItemSimpleDto> search(String searchText, Pageable pageable) {
-        log.debug("[i] SEARCH text:{}", searchText);
+    public List<ItemSimpleDto> search(String searchText, ItemSearchSort sort, Pageable pageable) {
+        log.debug("[i] SEARCH text:{} sort:{}", searchText, sort);
         if (searchText.isBlank()) {
 
             return List.of();
         }
 
-        return itemRepository
-                .searchItemByNameOrDescription(searchText, pageable)
-                .stream()
-                .map(ItemMapper.INSTANCE::toSimpleDto)
-                .collect(toList());
+        return itemSearchCache.get(searchText, sort, pageable,
+                () -> itemSearchEngine.search(searchText, sort, pageable));
     }
 
     /**
@@ -319,9 +360,28 @@ public class ItemServiceImpl implements ItemService {
         }
         CommentEntity comment = CommentMapper.INSTANCE.toEntity(commentSimpleDto);
         comment.setAuthor(author);
+        CommentDto saved = CommentMapper.INSTANCE.toDto(commentRepository.save(comment));
+        itemDetailCache.evictDetail(itemId);
 
-        return CommentMapper.INSTANCE.toDto(
-                commentRepository.save(comment));
+        return saved;
+    }
+
+    /**
+     * Embeds the newest comments and the number of all comments into the items.
+     *
+     * @param itemsDto Items
+     * @param preview  Newest comments of the items
+     */
+    private static void setCommentPreview(List<ItemDto> itemsDto, List<ItemCommentPreview> preview) {
+        Map<Long, List<ItemCommentPreview>> previewStorage = preview.stream()
+                .collect(groupingBy(ItemCommentView::getItemId));
+        itemsDto.forEach(itemDto -> {
+            List<ItemCommentPreview> comments = previewStorage.getOrDefault(itemDto.getId(), List.of());
+            itemDto.setComments(comments.stream()
+                    .map(CommentMapper.INSTANCE::viewToDto)
+                    .collect(toList()));
+            itemDto.setCommentsCount(comments.isEmpty() ? 0L : comments.get(0).getTotal());
+        });
     }
 
     /**
@@ -336,6 +396,17 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    /**
+     * Reports the saved item to the search engine and evicts the cached search pages it could change.
+     *
+     * @param before Item before the change, null if created
+     * @param after  Saved item
+     */
+    private void indexed(ItemSimpleDto before, ItemSimpleDto after) {
+        itemSearchEngine.indexed(after);
+        itemSearchCache.evict(before, after);
+    }
+
     /**
      * Checking for existence of an item in the repository
      *
@@ -348,49 +419,85 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private Item partiallyUpdated(Long itemId, String name, String description, Boolean available, Item item) {
-        boolean notNullName = !(name == null || name.isBlank());
-        boolean notNullDescription = !(description == null || description.isEmpty());
+    /**
+     * Queries of one {@link #get(Long, Long)}: all of them at once on a miss of the item,
+     * each one on its own otherwise.
+     */
+    private final class DetailQueries {
+        private final Long userId;
+        private final Long itemId;
+        private final LocalDateTime now;
+        private CompletableFuture<Boolean> userExists;
+        private CompletableFuture<List<BookingItemView>> bookings;
+
+        private DetailQueries(Long userId, Long itemId, LocalDateTime now) {
+            this.userId = userId;
+            this.itemId = itemId;
+            this.now = now;
+        }
 
-        if (notNullName) {
-            if (notNullDescription) {
-                log.debug("[i] Name = {}, Description = {};", name, description);
-                itemRepository.updateNameAndDescriptionById(name, description, itemId);
-                item.setName(name);
-                item.setDescription(description);
+        private ItemDetailCache.Detail detail() {
+            ItemQueryFanOut.Batch batch = itemQueryFanOut.batch("get");
+            CompletableFuture<Optional<Item>> item = batch.submit(
+                    () -> itemRepository.findWithOwnerAndRequestById(itemId));
+            boolean commentPreview = commentPreviewSize > 0;
+            CompletableFuture<List<ItemCommentPreview>> preview = commentPreview
+                    ? batch.submit(() -> commentRepository.findPreviewByItem_IdIn(List.of(itemId), commentPreviewSize))
+                    : null;
+            CompletableFuture<List<CommentDto>> comments = commentPreview
+                    ? null
+                    : batch.submit(() -> commentRepository.findAllDtoByItem_Id(itemId));
+            bookings = batch.submit(() -> bookingRepository.findLastAndNextByItemId(itemId, now));
+            userExists = batch.submit(() -> userRepository.existsById(userId));
+            batch.await();
+
+            Item found = item.join()
+                    .orElseThrow(() -> {
+                        if (!userExists.join()) {
+                            return new NotFoundException(format(Constants.USER_NOT_EXISTS, userId));
+                        }
+                        return new NotFoundException(format(ITEM_NOT_EXISTS, itemId));
+                    });
+            ItemDto itemDto = ItemMapper.INSTANCE.toDto(found);
+            if (commentPreview) {
+                setCommentPreview(List.of(itemDto), preview.join());
             } else {
-                if (available != null) {
-                    log.debug("[i] Name = {}, Available = {};", name, available);
-                    itemRepository.updateNameAndAvailableById(name, available, itemId);
-                    item.setName(name);
-                    item.setAvailable(available);
-                } else {
-                    log.debug("[i] Name = {};", name);
-                    itemRepository.updateNameById(name, itemId);
-                    item.setName(name);
-                }
+                itemDto.setComments(comments.join());
             }
-        } else {
-            if (notNullDescription) {
-                if (available != null) {
-                    log.debug("[i] Update Description = {}, Available = {};", description, available);
-                    itemRepository.updateDescriptionAndAvailableById(description, available, itemId);
-                    item.setDescription(description);
-                    item.setAvailable(available);
+
+            return new ItemDetailCache.Detail(found.getOwner().getId(), itemDto);
+        }
+
+        private boolean userExists() {
+            if (userExists == null) {
+                userExists = single("get.user", () -> userRepository.existsById(userId));
+            }
+            return userExists.join();
+        }
+
+        private ItemDetailCache.Bookings bookings() {
+            if (bookings == null) {
+                bookings = single("get.bookings", () -> bookingRepository.findLastAndNextByItemId(itemId, now));
+            }
+            BookingItemDto last = null;
+            BookingItemDto next = null;
+            for (BookingItemView booking : bookings.join()) {
+                if (booking.getStart().isAfter(now)) {
+                    next = BookingMapper.INSTANCE.viewToItemDto(booking);
                 } else {
-                    log.debug("[i] Description = {};", description);
-                    itemRepository.updateDescriptionById(description, itemId);
-                    item.setDescription(description);
-                }
-            } else {
-                if (available != null) {
-                    log.debug("[i] Available = {};", available);
-                    itemRepository.updateAvailableById(available, itemId);
-                    item.setAvailable(available);
+                    last = BookingMapper.INSTANCE.viewToItemDto(booking);
                 }
             }
+
+            return new ItemDetailCache.Bookings(last, next);
         }
 
-        return item;
+        private <T> CompletableFuture<T> single(String operation, Supplier<T> query) {
+            ItemQueryFanOut.Batch batch = itemQueryFanOut.batch(operation);
+            CompletableFuture<T> result = batch.submit(query);
+            batch.await();
+
+            return result;
+        }
     }
 }
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.pageable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset (seek) position in a list ordered by {@code (position DESC, id DESC)}.
+ * <p>
+ * Clients receive it as an opaque string and send it back
+ * to get the rows following the last one they have seen.
+ * <p>
+ * {@code position} Sort column of the last row <br/>
+ * {@code id} ID of the last row <br/>
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class Cursor {
+    private static final String SEPARATOR = "|";
+    private final LocalDateTime position;
+    private final Long id;
+
+    public String encode() {
+        String value = position + SEPARATOR + id;
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+
+            return new Cursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor incorrect");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.api.service.ItemDetailCache;
 import ru.practicum.shareit.user.api.dto.UserDto;
 import ru.practicum.shareit.user.api.dto.UserMapper;
 import ru.practicum.shareit.user.api.dto.UserSimpleDto;
@@ -24,6 +25,7 @@ import static ru.practicum.shareit.constants.Constants.USER_NOT_EXISTS;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemDetailCache itemDetailCache;
 
     @Override
     public UserDto create(UserSimpleDto userDto) {
@@ -91,9 +93,14 @@ public class UserServiceImpl implements UserService {
             userDto.setEmail(userEntity.getEmail());
         }
 
-        return UserMapper.INSTANTS.toDto(
-                userRepository.save(
-                        UserMapper.INSTANTS.toEntityFromDto(userDto)));
+        boolean nameChanged = !userDto.getName().equals(userEntity.getName());
+        User saved = userRepository.save(UserMapper.INSTANTS.toEntityFromDto(userDto));
+        if (nameChanged) {
+            // the name is shown as the author of the cached comments
+            itemDetailCache.evictAll();
+        }
+
+        return UserMapper.INSTANTS.toDto(saved);
     }
 
     @Override
@@ -101,6 +108,7 @@ public class UserServiceImpl implements UserService {
         log.debug("[i] delete User by ID:{}", id);
         isExist(id);
         userRepository.deleteById(id);
+        itemDetailCache.evictAll();
     }
 
     private void isExist(Long id) {
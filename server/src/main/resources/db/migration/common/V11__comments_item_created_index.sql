@@ -0,0 +1,4 @@
+-- Comments of an item, newest first:
+-- the preview of /items and /items/{id}, the keyset pages of /items/{id}/comments.
+create index if not exists comments_item_created_idx
+    on public.comments (item_id, created desc, id desc);
@@ -0,0 +1,24 @@
+-- Composite indexes matched to the booking list and lookup queries.
+-- Every list is ordered by (start_time desc, id desc).
+
+-- /bookings?state=ALL|CURRENT|PAST|FUTURE
+create index if not exists bookings_booker_start_idx
+    on public.bookings (booker_id, start_time desc, id desc);
+
+-- /bookings?state=WAITING|REJECTED
+create index if not exists bookings_booker_status_start_idx
+    on public.bookings (booker_id, status, start_time desc);
+
+-- /bookings/owner: items of the owner, then their bookings
+create index if not exists items_owner_idx
+    on public.items (owner_id);
+
+create index if not exists bookings_item_start_idx
+    on public.bookings (item_id, start_time desc, id desc);
+
+-- last / next booking of an item, completed booking check for comments
+create index if not exists bookings_item_status_start_idx
+    on public.bookings (item_id, status, start_time);
+
+create index if not exists bookings_booker_item_status_idx
+    on public.bookings (booker_id, item_id, status, break_time);
@@ -0,0 +1,12 @@
+-- Owner of the booked item, copied from items.owner_id:
+-- owner lists filter bookings without joining items.
+
+alter table public.bookings
+    add column if not exists owner_id bigint references public.users (id);
+
+update public.bookings b
+   set owner_id = (select i.owner_id from public.items i where i.id = b.item_id)
+ where b.owner_id is null;
+
+create index if not exists bookings_owner_start_idx
+    on public.bookings (owner_id, start_time desc, id desc);
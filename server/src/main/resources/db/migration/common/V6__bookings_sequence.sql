@@ -0,0 +1,4 @@
+-- Booking ids are taken from a sequence in blocks of 50,
+-- so that Hibernate can batch the inserts.
+
+create sequence if not exists public.bookings_seq start with 1 increment by 50;
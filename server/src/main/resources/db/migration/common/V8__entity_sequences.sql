@@ -0,0 +1,10 @@
+-- Ids of users, requests, items and comments are taken from sequences
+-- in blocks of 50, as the booking ids since V6.
+
+create sequence if not exists public.users_seq start with 1 increment by 50;
+
+create sequence if not exists public.requests_seq start with 1 increment by 50;
+
+create sequence if not exists public.items_seq start with 1 increment by 50;
+
+create sequence if not exists public.comments_seq start with 1 increment by 50;
@@ -0,0 +1,3 @@
+-- Relevance search: word_similarity of pg_trgm, which H2 does not have.
+
+create alias if not exists word_similarity for 'ru.practicum.shareit.item.api.repository.H2WordSimilarity.wordSimilarity';
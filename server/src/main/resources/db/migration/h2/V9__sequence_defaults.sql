@@ -0,0 +1,17 @@
+-- The sequences replace the identity columns: rows inserted outside Hibernate
+-- take a whole block, so they never collide with the ids Hibernate hands out.
+
+alter table public.users alter column id drop identity;
+alter table public.users alter column id set default next value for public.users_seq;
+
+alter table public.requests alter column id drop identity;
+alter table public.requests alter column id set default next value for public.requests_seq;
+
+alter table public.items alter column id drop identity;
+alter table public.items alter column id set default next value for public.items_seq;
+
+alter table public.comments alter column id drop identity;
+alter table public.comments alter column id set default next value for public.comments_seq;
+
+alter table public.bookings alter column id drop identity;
+alter table public.bookings alter column id set default next value for public.bookings_seq;
@@ -0,0 +1,12 @@
+-- /items/search: upper(name) like upper('%text%') or upper(description) like upper('%text%')
+-- over available items. Trigram GIN indexes serve unanchored LIKE patterns of 3+ characters.
+
+create extension if not exists pg_trgm;
+
+create index if not exists items_name_trgm_idx
+    on public.items using gin (upper(name) gin_trgm_ops)
+    where available;
+
+create index if not exists items_description_trgm_idx
+    on public.items using gin (upper(description) gin_trgm_ops)
+    where available;
@@ -0,0 +1,16 @@
+-- Partial indexes: only the rows of the hot statuses are indexed.
+
+-- interval index rebuild, last / next booking of an item
+create index if not exists bookings_approved_item_start_idx
+    on public.bookings (item_id, start_time)
+    where status = 'APPROVED';
+
+-- /bookings?state=WAITING
+create index if not exists bookings_waiting_booker_start_idx
+    on public.bookings (booker_id, start_time desc, id desc)
+    where status = 'WAITING';
+
+-- /bookings/owner?state=WAITING
+create index if not exists bookings_waiting_item_start_idx
+    on public.bookings (item_id, start_time desc, id desc)
+    where status = 'WAITING';
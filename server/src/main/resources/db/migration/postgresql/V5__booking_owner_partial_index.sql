@@ -0,0 +1,7 @@
+-- /bookings/owner?state=WAITING filters by bookings.owner_id since V4.
+
+drop index if exists public.bookings_waiting_item_start_idx;
+
+create index if not exists bookings_waiting_owner_start_idx
+    on public.bookings (owner_id, start_time desc, id desc)
+    where status = 'WAITING';
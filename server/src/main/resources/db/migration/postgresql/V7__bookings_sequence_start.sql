@@ -0,0 +1,3 @@
+-- The next block of ids starts after the ids issued by the identity column.
+
+select setval('public.bookings_seq', (select coalesce(max(id), 0) + 50 from public.bookings), false);
@@ -0,0 +1,22 @@
+-- The sequences replace the identity columns: rows inserted outside Hibernate
+-- take a whole block, so they never collide with the ids Hibernate hands out.
+
+select setval('public.users_seq', (select coalesce(max(id), 0) + 1 from public.users), false);
+select setval('public.requests_seq', (select coalesce(max(id), 0) + 1 from public.requests), false);
+select setval('public.items_seq', (select coalesce(max(id), 0) + 1 from public.items), false);
+select setval('public.comments_seq', (select coalesce(max(id), 0) + 1 from public.comments), false);
+
+alter table public.users alter column id drop identity if exists;
+alter table public.users alter column id set default nextval('public.users_seq');
+
+alter table public.requests alter column id drop identity if exists;
+alter table public.requests alter column id set default nextval('public.requests_seq');
+
+alter table public.items alter column id drop identity if exists;
+alter table public.items alter column id set default nextval('public.items_seq');
+
+alter table public.comments alter column id drop identity if exists;
+alter table public.comments alter column id set default nextval('public.comments_seq');
+
+alter table public.bookings alter column id drop identity if exists;
+alter table public.bookings alter column id set default nextval('public.bookings_seq');
@@ -12,9 +12,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.api.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
 import ru.practicum.shareit.booking.api.dto.BookingMapper;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingStatusBatchResultDto;
 import ru.practicum.shareit.booking.api.service.BookingService;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
@@ -22,30 +24,37 @@ import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.RentalPeriodException;
 import ru.practicum.shareit.exception.StateException;
+import ru.practicum.shareit.pageable.Cursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.ShareItServer.RANDOM;
 import static ru.practicum.shareit.constants.Constants.CREATE_BOOKING;
+import static ru.practicum.shareit.constants.Constants.CREATE_BOOKINGS_BATCH;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_OWNER;
 import static ru.practicum.shareit.constants.Constants.GET_ALL_BOOKINGS_FOR_USER;
 import static ru.practicum.shareit.constants.Constants.GET_BOOKING;
+import static ru.practicum.shareit.constants.Constants.HEADER_NEXT_CURSOR;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.UPDATE_STATUS_BOOKING;
+import static ru.practicum.shareit.constants.Constants.UPDATE_STATUS_BOOKINGS_BATCH;
 
 @WebMvcTest(controllers = BookingController.class)
 @AutoConfigureMockMvc
@@ -93,6 +102,54 @@ class BookingControllerTest {
                 .create(anyLong(), any(BookingSimpleDto.class));
     }
 
+    @Test
+    @DisplayName("CREATE_BOOKINGS_BATCH: " + CREATE_BOOKINGS_BATCH)
+    void createAll() throws Exception {
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.created(0, bookingDto),
+                BookingBatchResultDto.refused(1, "The item is already booked for this period."));
+
+        when(bookingService.createAll(eq(bookerId), any()))
+                .thenReturn(results);
+
+        mvc.perform(post(CREATE_BOOKINGS_BATCH)
+                        .header(HEADER_USER_ID, bookerId)
+                        .content(mapper.writeValueAsString(List.of(bookingSimpleDto, bookingSimpleDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[1].error", is("The item is already booked for this period.")));
+
+        verify(bookingService, times(1))
+                .createAll(eq(bookerId), any());
+    }
+
+    @Test
+    @DisplayName("UPDATE_STATUS_BOOKINGS_BATCH: " + UPDATE_STATUS_BOOKINGS_BATCH)
+    void updateAll() throws Exception {
+        BookingStatusBatchResultDto result = new BookingStatusBatchResultDto(
+                List.of(1L), Map.of(2L, "The booking status has already been set."));
+
+        when(bookingService.updateAll(bookerId, List.of(1L, 2L), true))
+                .thenReturn(result);
+
+        mvc.perform(patch(UPDATE_STATUS_BOOKINGS_BATCH)
+                        .header(HEADER_USER_ID, bookerId)
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated[0]", is(1)))
+                .andExpect(jsonPath("$.skipped.2", is("The booking status has already been set.")));
+
+        verify(bookingService, times(1))
+                .updateAll(bookerId, List.of(1L, 2L), true);
+    }
+
     @Test
     @Disabled
     @DisplayName("CREATE_BOOKING: " + CREATE_BOOKING + " Access denied. You are owner this item")
@@ -271,4 +328,42 @@ class BookingControllerTest {
                         any(LocalDateTime.class),
                         any(Pageable.class));
     }
+
+    @Test
+    @DisplayName("GET_ALL_BOOKINGS_FOR_OWNER:" + GET_ALL_BOOKINGS_FOR_OWNER + " by cursor")
+    void getAllOwner_byCursor() throws Exception {
+        Cursor cursor = new Cursor(now, 5L);
+        BookingDto last = bookingDtoList.get(0);
+        String nextCursor = new Cursor(last.getStart(), last.getId()).encode();
+
+        when(bookingService.getAllByOwner(anyLong(),
+                any(BookingState.class),
+                any(LocalDateTime.class),
+                eq(cursor),
+                eq(1)))
+                .thenReturn(bookingDtoList);
+
+        mvc.perform(get(GET_ALL_BOOKINGS_FOR_OWNER)
+                        .param("cursor", cursor.encode())
+                        .param("size", "1")
+                        .header(HEADER_USER_ID, bookerId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HEADER_NEXT_CURSOR, nextCursor))
+                .andExpect(jsonPath("$[0].id").value(last.getId()));
+    }
+
+    @Test
+    @DisplayName("GET_ALL_BOOKINGS_FOR_USER:" + GET_ALL_BOOKINGS_FOR_USER + " wrong cursor")
+    void getByBookerId_wrongCursor() throws Exception {
+        mvc.perform(get(GET_ALL_BOOKINGS_FOR_USER)
+                        .param("cursor", "not a cursor")
+                        .header(HEADER_USER_ID, bookerId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.api.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.api.repository.BookingRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    private final Long itemId = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, clockAt(now));
+        when(bookingRepository.findAllIntervalsByStatusAndEndAfter(eq(APPROVED), any()))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, itemId, now, now.plusDays(2)),
+                        new BookingInterval(2L, itemId, now.plusDays(4), now.plusDays(6))));
+        index.rebuild();
+    }
+
+    @Test
+    void isOverlapping() {
+        assertTrue(index.isOverlapping(itemId, now.minusDays(1), now.plusDays(1)));
+        assertTrue(index.isOverlapping(itemId, now.plusDays(1), now.plusDays(5)));
+        assertTrue(index.isOverlapping(itemId, now.minusDays(1), now.plusDays(7)));
+        assertFalse(index.isOverlapping(itemId, now.plusDays(2), now.plusDays(4)));
+        assertFalse(index.isOverlapping(itemId, now.minusDays(2), now));
+        assertFalse(index.isOverlapping(2L, now, now.plusDays(2)));
+    }
+
+    @Test
+    void reserve_thenRelease() {
+        BookingInterval interval = new BookingInterval(3L, itemId, now.plusDays(2), now.plusDays(4));
+
+        assertTrue(index.reserve(interval));
+        assertFalse(index.reserve(new BookingInterval(4L, itemId, now.plusDays(3), now.plusDays(8))));
+        assertTrue(index.isOverlapping(itemId, now.plusDays(3), now.plusDays(3).plusHours(1)));
+
+        index.release(interval);
+
+        assertFalse(index.isOverlapping(itemId, now.plusDays(3), now.plusDays(3).plusHours(1)));
+    }
+
+    @Test
+    void isOverlapping_whenStoredPeriodsOverlap() {
+        when(bookingRepository.findAllIntervalsByStatusAndEndAfter(APPROVED, now))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, itemId, now, now.plusDays(10)),
+                        new BookingInterval(2L, itemId, now.plusDays(1), now.plusDays(2))));
+        index.rebuild();
+
+        assertTrue(index.isOverlapping(itemId, now.plusDays(5), now.plusDays(6)));
+    }
+
+    @Test
+    void findDiverged_thenRepair() {
+        index.reserve(new BookingInterval(3L, itemId, now.plusDays(10), now.plusDays(12)));
+        index.reserve(new BookingInterval(4L, 2L, now, now.plusDays(1)));
+
+        assertEquals(List.of(itemId, 2L), index.findDiverged());
+        assertTrue(index.isOverlapping(itemId, now.plusDays(10), now.plusDays(12)));
+
+        assertEquals(List.of(itemId, 2L), index.repair());
+        assertFalse(index.isOverlapping(itemId, now.plusDays(10), now.plusDays(12)));
+        assertFalse(index.isOverlapping(2L, now, now.plusDays(1)));
+        assertTrue(index.findDiverged().isEmpty());
+    }
+
+    @Test
+    void findDiverged_whenReadingDatabase_thenReserveNotBlocked() {
+        BookingInterval interval = new BookingInterval(3L, itemId, now.plusDays(10), now.plusDays(12));
+        when(bookingRepository.findAllIntervalsByStatusAndEndAfter(APPROVED, now)).thenAnswer(invocation -> {
+            assertTrue(CompletableFuture.supplyAsync(() -> index.reserve(interval)).get(1, TimeUnit.SECONDS));
+            return List.of(new BookingInterval(1L, itemId, now, now.plusDays(2)),
+                    new BookingInterval(2L, itemId, now.plusDays(4), now.plusDays(6)),
+                    interval);
+        });
+
+        assertTrue(index.findDiverged().isEmpty());
+    }
+
+    @Test
+    void rebuild_loadsPeriodsNotEnded() {
+        when(bookingRepository.findAllIntervalsByStatusAndEndAfter(APPROVED, now.plusDays(3)))
+                .thenReturn(List.of(new BookingInterval(2L, itemId, now.plusDays(4), now.plusDays(6))));
+        BookingIntervalIndex later = new BookingIntervalIndex(bookingRepository, clockAt(now.plusDays(3)));
+        later.rebuild();
+
+        assertFalse(later.isOverlapping(itemId, now, now.plusDays(2)));
+        assertTrue(later.isOverlapping(itemId, now.plusDays(4), now.plusDays(5)));
+        assertTrue(later.findDiverged().isEmpty());
+    }
+
+    @Test
+    void reserve_removesEndedPeriods() {
+        MutableClock clock = new MutableClock(clockAt(now));
+        BookingIntervalIndex ticking = new BookingIntervalIndex(bookingRepository, clock);
+        ticking.rebuild();
+        clock.set(clockAt(now.plusDays(3)));
+
+        assertTrue(ticking.isOverlapping(itemId, now, now.plusDays(1)));
+        assertTrue(ticking.reserve(new BookingInterval(3L, itemId, now.plusDays(7), now.plusDays(8))));
+
+        assertFalse(ticking.isOverlapping(itemId, now, now.plusDays(1)));
+        assertTrue(ticking.isOverlapping(itemId, now.plusDays(4), now.plusDays(5)));
+    }
+
+    @Test
+    void releaseOnRollback() {
+        BookingInterval committed = new BookingInterval(3L, itemId, now.plusDays(2), now.plusDays(3));
+        BookingInterval rolledBack = new BookingInterval(4L, itemId, now.plusDays(3), now.plusDays(4));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.reserve(committed);
+            index.releaseOnRollback(List.of(committed));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+
+            TransactionSynchronizationManager.initSynchronization();
+            index.reserve(rolledBack);
+            index.releaseOnRollback(List.of(rolledBack));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.isOverlapping(itemId, now.plusDays(2), now.plusDays(2).plusHours(1)));
+        assertFalse(index.isOverlapping(itemId, now.plusDays(3), now.plusDays(3).plusHours(1)));
+    }
+
+    private static Clock clockAt(LocalDateTime time) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Clock.fixed(time.atZone(zone).toInstant(), zone);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Clock clock;
+
+        MutableClock(Clock clock) {
+            this.clock = clock;
+        }
+
+        void set(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return clock.getZone();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return clock.withZone(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+    }
+}
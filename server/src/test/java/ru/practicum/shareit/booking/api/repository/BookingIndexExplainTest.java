@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression test of the indexes created by the migrations:
+ * the query plan of every hot booking query must use its index.
+ * <p>
+ * H2 creates an index for every foreign key, does not skip the leading equality
+ * column when matching ORDER BY and keeps column selectivity from its own statistics.
+ * Shapes for which a foreign key index looks as cheap to H2 are only checked
+ * not to scan the table.
+ */
+@DataJpaTest
+class BookingIndexExplainTest {
+    private static final int ROWS = 400;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        execute("insert into users (email, name) "
+                + "select 'user' || x || '@mail.ru', 'user' || x from system_range(1, 20)");
+        execute("insert into items (name, description, available, owner_id) "
+                + "select 'item' || x, 'description', true, u.id from system_range(1, 40) "
+                + "join users u on u.email = 'user' || (mod(x, 20) + 1) || '@mail.ru'");
+        execute("insert into bookings (start_time, break_time, item_id, booker_id, owner_id, status) "
+                + "select dateadd('DAY', x, now()), dateadd('DAY', x + 1, now()), i.id, i.owner_id, i.owner_id, "
+                + "case mod(x, 3) when 0 then 'WAITING' when 1 then 'APPROVED' else 'REJECTED' end "
+                + "from system_range(1, " + ROWS + ") "
+                + "join items i on i.name = 'item' || (mod(x, 40) + 1)");
+    }
+
+    private void execute(String sql) {
+        entityManager.getEntityManager()
+                .createNativeQuery(sql)
+                .executeUpdate();
+    }
+
+    private String explain(String sql) {
+        return entityManager.getEntityManager()
+                .createNativeQuery("explain " + sql)
+                .getSingleResult()
+                .toString();
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+
+        assertTrue(plan.contains("PUBLIC." + index.toUpperCase()), plan);
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = explain(sql);
+
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    @DisplayName("ALL BOOKER")
+    void bookerStart() {
+        assertNoTableScan(
+                "select * from bookings b where b.booker_id = 1 "
+                        + "order by b.start_time desc, b.id desc");
+    }
+
+    @Test
+    @DisplayName("WAITING BOOKER")
+    void bookerStatusStart() {
+        assertNoTableScan(
+                "select * from bookings b where b.booker_id = 1 and b.status = 'WAITING' "
+                        + "order by b.start_time desc, b.id desc");
+    }
+
+    @Test
+    @DisplayName("ALL OWNER")
+    void ownerStart() {
+        String sql = "select * from bookings b join items i on i.id = b.item_id "
+                + "where b.owner_id = 1 order by b.start_time desc, b.id desc";
+
+        assertNoTableScan(sql);
+    }
+
+    @Test
+    @DisplayName("NEXT BOOKING OF THE ITEM")
+    void itemStatusStart() {
+        assertUsesIndex("bookings_item_status_start_idx",
+                "select * from bookings b where b.item_id = 1 and b.status = 'APPROVED' "
+                        + "and b.start_time > now() order by b.start_time");
+    }
+
+    @Test
+    @DisplayName("COMPLETED BOOKING OF THE USER")
+    void bookerItemStatus() {
+        assertUsesIndex("bookings_booker_item_status_idx",
+                "select count(*) from bookings b where b.booker_id = 1 and b.item_id = 1 "
+                        + "and b.status = 'APPROVED' and b.break_time <= now()");
+    }
+}
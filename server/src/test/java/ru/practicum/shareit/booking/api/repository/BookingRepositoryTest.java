@@ -5,20 +5,36 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.api.index.BookingInterval;
 import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingState;
 import ru.practicum.shareit.booking.entity.enums.BookingStatus;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.pageable.Cursor;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.BOOKER;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.OWNER;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.ALL;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.CURRENT;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.FUTURE;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.PAST;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.entity.enums.BookingStatus.WAITING;
@@ -29,8 +45,6 @@ import static ru.practicum.shareit.constants.Constants.RANDOM;
 class BookingRepositoryTest {
     private final Pageable pageable = Pageable.ofSize(10);
     private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
-    private final Sort sortStartAsc =
-            Sort.by(Sort.Direction.ASC, "start");
     @Autowired
     private UserRepository userRepository;
     @Autowired
@@ -50,20 +64,22 @@ class BookingRepositoryTest {
         return itemRepository.save(item);
     }
 
-    private void getNewBookingInPast(Item item, User booker) {
+    private Booking getNewBookingInPast(Item item, User booker) {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStart(now.minusDays(7));
         booking.setEnd(now.minusDays(4));
         booking.setStatus(APPROVED);
-        bookingRepository.save(booking);
+        return bookingRepository.save(booking);
     }
 
     private void getNewBookingNearPresent(Item item, User booker) {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStart(now.minusDays(1));
         booking.setEnd(now.plusDays(1));
         booking.setStatus(APPROVED);
@@ -74,6 +90,7 @@ class BookingRepositoryTest {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStart(now.plusDays(4));
         booking.setEnd(now.plusDays(7));
         booking.setStatus(status);
@@ -88,60 +105,77 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, APPROVED);
     }
 
-    private List<Long> getItemIds() {
+    @Test
+    @DisplayName("GET ALL LAST AND NEXT")
+    void findLastAndNextByItemIdIn() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
-
-        prepareBooking(item1, item2);
-
-        return List.of(item1.getId(), item2.getId());
+        User booker = getNewUser();
+        getNewBookingInPast(item1, booker);
+        getNewBookingInPast(item2, booker);
+        getNewBookingNearPresent(item2, booker);
+        Booking next = getNewBookingInFuture(item2, booker, APPROVED);
+        getNewBookingInFuture(item1, booker, WAITING);
+
+        List<BookingItemView> bookings = bookingRepository
+                .findLastAndNextByItemIdIn(List.of(item1.getId(), item2.getId()), now);
+
+        assertEquals(3, bookings.size());
+        Map<Long, List<LocalDateTime>> startsByItem = bookings.stream()
+                .collect(groupingBy(BookingItemView::getItemId,
+                        mapping(BookingItemView::getStart, toList())));
+        assertEquals(List.of(now.minusDays(7)), startsByItem.get(item1.getId()));
+        assertEquals(Set.of(now.minusDays(1), next.getStart()), Set.copyOf(startsByItem.get(item2.getId())));
     }
 
     @Test
-    @DisplayName("GET ALL LAST")
-    void findByItem_IdInAndStartAfterAndStatus() {
-        List<Long> ids = getItemIds();
-
-        assertEquals(1,
-                bookingRepository
-                        .findByItem_IdInAndStartAfterAndStatus(
-                                ids, now, APPROVED, sortStartAsc)
-                        .size());
-    }
+    @DisplayName("GET ALL LAST AND NEXT _ SAME START")
+    void findLastAndNextByItemIdIn_whenSameStart() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        User booker = getNewUser();
+        getNewBookingInPast(item, booker);
+        Booking last = getNewBookingInPast(item, booker);
+        Booking next = getNewBookingInFuture(item, booker, APPROVED);
+        getNewBookingInFuture(item, booker, APPROVED);
 
-    @Test
-    @DisplayName("GET ALL NEXT")
-    void findByItem_IdInAndStartLessThanEqualAndStatus() {
-        List<Long> ids = getItemIds();
-
-        assertEquals(2,
-                bookingRepository
-                        .findByItem_IdInAndStartLessThanEqualAndStatus(
-                                ids, now, APPROVED, sortStartAsc)
-                        .size());
+        List<BookingItemView> bookings = bookingRepository.findLastAndNextByItemIdIn(List.of(item.getId()), now);
+
+        assertEquals(Set.of(last.getId(), next.getId()), bookings.stream()
+                .map(BookingItemView::getId)
+                .collect(toSet()));
     }
 
     @Test
-    @DisplayName("GET LAST")
-    void findFirstByItem_IdAndStartAfterAndStatus() {
-        List<Long> ids = getItemIds();
-
-        assertFalse(bookingRepository
-                .findFirstByItem_IdAndStartAfterAndStatus(
-                        ids.get(0), now, APPROVED, sortStartAsc)
-                .isPresent());
+    @DisplayName("GET LAST AND NEXT")
+    void findLastAndNextByItemId() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        User booker = getNewUser();
+        getNewBookingInPast(item, booker);
+        getNewBookingNearPresent(item, booker);
+        Booking next = getNewBookingInFuture(item, booker, APPROVED);
+        getNewBookingInFuture(item, booker, REJECTED);
+
+        List<BookingItemView> bookings = bookingRepository.findLastAndNextByItemId(item.getId(), now);
+
+        assertEquals(2, bookings.size());
+        assertEquals(now.minusDays(1), bookings.get(0).getStart());
+        assertEquals(now.plusDays(1), bookings.get(0).getEnd());
+        assertEquals(item.getId(), bookings.get(0).getItemId());
+        assertEquals(booker.getId(), bookings.get(0).getBookerId());
+        assertEquals(next.getId(), bookings.get(1).getId());
     }
 
     @Test
-    @DisplayName("GET NEXT")
-    void findFirstByItem_IdAndStartLessThanEqualAndStatus() {
-        List<Long> ids = getItemIds();
-
-        assertFalse(bookingRepository
-                .findFirstByItem_IdAndStartAfterAndStatus(
-                        ids.get(0), now, APPROVED, sortStartAsc)
-                .isPresent());
+    @DisplayName("GET LAST AND NEXT _ NO BOOKINGS")
+    void findLastAndNextByItemId_whenNoApproved() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        getNewBookingInFuture(item, getNewUser(), WAITING);
+
+        assertTrue(bookingRepository.findLastAndNextByItemId(item.getId(), now).isEmpty());
     }
 
     @Test
@@ -151,7 +185,7 @@ class BookingRepositoryTest {
 
     @Test
     @DisplayName("ALL BOOKER")
-    void findAllByBooker_IdOrderByStartDesc() {
+    void findAllByState_BOOKER_ALL() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -159,13 +193,13 @@ class BookingRepositoryTest {
         prepareBooking(item1, item2);
 
         assertEquals(3, bookingRepository
-                .findAllByItem_Owner_IdOrderByStartDesc(owner.getId(), pageable)
+                .findAllByState(OWNER, owner.getId(), ALL, now, pageable)
                 .size());
     }
 
     @Test
-    @DisplayName("<APPROVED>, WAITING OWNER")
-    void findAllByItem_Owner_IdAndStatusOrderByStartDesc() {
+    @DisplayName("APPROVED, <REJECTED> OWNER")
+    void findAllByState_OWNER_REJECTED() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -173,17 +207,16 @@ class BookingRepositoryTest {
         User booker = getNewUser();
         getNewBookingInPast(item1, booker);
         getNewBookingNearPresent(item2, booker);
-        getNewBookingInFuture(item2, booker, APPROVED);
+        getNewBookingInFuture(item2, booker, REJECTED);
 
-        assertEquals(3, bookingRepository
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(
-                        owner.getId(), APPROVED, pageable)
+        assertEquals(1, bookingRepository
+                .findAllByState(OWNER, owner.getId(), BookingState.REJECTED, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("APPROVED, <WAITING> OWNER")
-    void findAllByItem_Owner_IdAndStatusOrderByStartDesc_2() {
+    void findAllByState_OWNER_WAITING() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -194,13 +227,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(owner.getId(), WAITING, pageable)
+                .findAllByState(OWNER, owner.getId(), BookingState.WAITING, now, pageable)
                 .size());
     }
 
     @Test
-    @DisplayName("<APPROVED>, WAITING BOOKER")
-    void findAllByBooker_IdAndStatusOrderByStartDesc() {
+    @DisplayName("APPROVED, <REJECTED> BOOKER")
+    void findAllByState_BOOKER_REJECTED() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -208,16 +241,16 @@ class BookingRepositoryTest {
         User booker = getNewUser();
         getNewBookingInPast(item1, booker);
         getNewBookingNearPresent(item2, booker);
-        getNewBookingInFuture(item2, booker, APPROVED);
+        getNewBookingInFuture(item2, booker, REJECTED);
 
-        assertEquals(3, bookingRepository
-                .findAllByBooker_IdAndStatusOrderByStartDesc(booker.getId(), APPROVED, pageable)
+        assertEquals(1, bookingRepository
+                .findAllByState(BOOKER, booker.getId(), BookingState.REJECTED, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("APPROVED, <WAITING> BOOKER")
-    void findAllByBooker_IdAndStatusOrderByStartDesc_2() {
+    void findAllByState_BOOKER_WAITING() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -228,13 +261,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndStatusOrderByStartDesc(booker.getId(), WAITING, pageable)
+                .findAllByState(BOOKER, booker.getId(), BookingState.WAITING, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("PAST OWNER")
-    void findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc() {
+    void findAllByState_OWNER_PAST() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -245,13 +278,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(owner.getId(), now, pageable)
+                .findAllByState(OWNER, owner.getId(), PAST, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("PAST BOOKER")
-    void findAllByBooker_IdAndEndBeforeOrderByStartDesc() {
+    void findAllByState_BOOKER_PAST() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -262,13 +295,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndEndBeforeOrderByStartDesc(booker.getId(), now, pageable)
+                .findAllByState(BOOKER, booker.getId(), PAST, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("FUTURE BOOKER")
-    void findAllByBooker_IdAndStartAfterOrderByStartDesc() {
+    void findAllByState_BOOKER_FUTURE() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -279,13 +312,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndStartAfterOrderByStartDesc(booker.getId(), now, pageable)
+                .findAllByState(BOOKER, booker.getId(), FUTURE, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("FUTURE OWNER")
-    void findAllByItem_Owner_IdAndStartAfterOrderByStartDesc() {
+    void findAllByState_OWNER_FUTURE() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -296,13 +329,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(owner.getId(), now, pageable)
+                .findAllByState(OWNER, owner.getId(), FUTURE, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("CURRENT BOOKER")
-    void findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc() {
+    void findAllByState_BOOKER_CURRENT() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -313,13 +346,13 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(booker.getId(), now, now, pageable)
+                .findAllByState(BOOKER, booker.getId(), CURRENT, now, pageable)
                 .size());
     }
 
     @Test
     @DisplayName("CURRENT OWNER")
-    void findAllByItem_Owner_IdAndStartBeforeAndEndAfter() {
+    void findAllByState_OWNER_CURRENT() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -330,8 +363,52 @@ class BookingRepositoryTest {
         getNewBookingInFuture(item2, booker, WAITING);
 
         assertEquals(1, bookingRepository
-                .findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(
-                        owner.getId(), now, now, pageable)
+                .findAllByState(OWNER, owner.getId(), CURRENT, now, pageable)
+                .size());
+    }
+
+    @Test
+    @DisplayName("ALL BOOKER AFTER CURSOR")
+    void findAllByState_BOOKER_ALL_afterCursor() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+
+        User booker = getNewUser();
+        getNewBookingInPast(item1, booker);
+        getNewBookingNearPresent(item2, booker);
+        Booking next = getNewBookingInFuture(item2, booker, WAITING);
+
+        List<BookingDto> firstPage = bookingRepository
+                .findAllByState(BOOKER, booker.getId(), ALL, now, Pageable.ofSize(1));
+        assertEquals(next.getId(), firstPage.get(0).getId());
+
+        List<BookingDto> secondPage = bookingRepository
+                .findAllByState(BOOKER, booker.getId(), ALL, now,
+                        new Cursor(next.getStart(), next.getId()), 10);
+        assertEquals(2, secondPage.size());
+        assertTrue(secondPage.get(0).getStart().isBefore(next.getStart()));
+    }
+
+    @Test
+    @DisplayName("CURRENT OWNER AFTER CURSOR")
+    void findAllByState_OWNER_CURRENT_afterCursor() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+
+        User booker = getNewUser();
+        getNewBookingInPast(item1, booker);
+        getNewBookingNearPresent(item2, booker);
+        getNewBookingInFuture(item2, booker, WAITING);
+
+        assertEquals(1, bookingRepository
+                .findAllByState(OWNER, owner.getId(), CURRENT, now,
+                        new Cursor(now.plusYears(1), Long.MAX_VALUE), 10)
+                .size());
+        assertEquals(0, bookingRepository
+                .findAllByState(OWNER, owner.getId(), CURRENT, now,
+                        new Cursor(now.minusDays(1), Long.MIN_VALUE), 10)
                 .size());
     }
 
@@ -353,6 +430,80 @@ class BookingRepositoryTest {
         assertEquals(checking.getStatus(), REJECTED);
     }
 
+    @Test
+    @DisplayName("SAVE ALL WITH SEQUENCE IDS")
+    void saveAll() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        User booker = getNewUser();
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setOwnerId(owner.getId());
+            booking.setStart(now.plusDays(i));
+            booking.setEnd(now.plusDays(i).plusHours(1));
+            booking.setStatus(WAITING);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+
+        assertEquals(3, bookings.stream().map(Booking::getId).distinct().count());
+        assertEquals(3, bookingRepository
+                .findAllByState(BOOKER, booker.getId(), ALL, now, pageable)
+                .size());
+    }
+
+    @Test
+    @DisplayName("UPDATE STATUS OF SEVERAL BOOKINGS")
+    void updateStatusByIdIn() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+
+        User booker = getNewUser();
+        Booking waiting = getNewBookingInFuture(item, booker, WAITING);
+        Booking rejected = getNewBookingInFuture(item, booker, REJECTED);
+        Booking foreign = getNewBookingInFuture(getNewItem(getNewUser()), booker, WAITING);
+        List<Long> ids = List.of(waiting.getId(), rejected.getId(), foreign.getId());
+
+        List<BookingStatusView> found = bookingRepository.findAllStatusByIdIn(ids);
+        assertEquals(3, found.size());
+        assertTrue(found.stream().anyMatch(view -> view.getId().equals(waiting.getId())
+                && view.getOwnerId().equals(owner.getId())
+                && view.getItemId().equals(item.getId())));
+
+        assertEquals(1, bookingRepository.updateStatusByIdIn(APPROVED, ids, owner.getId(), WAITING));
+        assertEquals(APPROVED, bookingRepository.getReferenceById(waiting.getId()).getStatus());
+        assertEquals(REJECTED, bookingRepository.getReferenceById(rejected.getId()).getStatus());
+        assertEquals(WAITING, bookingRepository.getReferenceById(foreign.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("PERIODS FOR BOOKING INDEX")
+    void findAllIntervalsByStatusAndEndAfter() {
+        User owner = getNewUser();
+        Item item1 = getNewItem(owner);
+        Item item2 = getNewItem(owner);
+
+        User booker = getNewUser();
+        Booking past = getNewBookingInPast(item1, booker);
+        Booking next = getNewBookingInFuture(item2, booker, APPROVED);
+        Booking waiting = getNewBookingInFuture(item1, booker, WAITING);
+
+        List<BookingInterval> found = bookingRepository.findAllIntervalsByStatusAndEndAfter(APPROVED, now);
+
+        assertEquals(1, found.stream()
+                .filter(interval -> interval.getBookingId().equals(next.getId())
+                        && interval.getItemId().equals(item2.getId())
+                        && interval.getStart().equals(next.getStart()))
+                .count());
+        assertTrue(found.stream().noneMatch(interval -> interval.getBookingId().equals(past.getId())
+                || interval.getBookingId().equals(waiting.getId())));
+    }
+
     @Test
     @DisplayName("CHECK BOOKING FOR CREATE COMMENT")
     void existsCompletedBookingByTheUserOfTheItem() {
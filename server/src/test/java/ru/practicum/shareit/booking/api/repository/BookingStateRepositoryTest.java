@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.api.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.enums.BookingRole;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.request.entity.ItemRequest;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.BOOKER;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.OWNER;
+import static ru.practicum.shareit.booking.entity.enums.BookingState.ALL;
+import static ru.practicum.shareit.booking.entity.enums.BookingStatus.APPROVED;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingStateRepositoryTest {
+    private static final int BOOKINGS = 12;
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+
+    private User getNewUser(int number) {
+        User user = new User();
+        user.setName("user" + number);
+        user.setEmail("user" + number + "@mail.ru");
+        return entityManager.persist(user);
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        User requester = getNewUser(0);
+        owner = getNewUser(1);
+        booker = getNewUser(2);
+        for (int i = 0; i < BOOKINGS; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("request" + i);
+            request.setRequester(requester);
+            request.setCreated(now);
+            entityManager.persist(request);
+
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setDescription("description" + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            item.setRequest(request);
+            entityManager.persist(item);
+
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setOwnerId(item.getOwner().getId());
+            booking.setStart(now.plusDays(i));
+            booking.setEnd(now.plusDays(i).plusHours(1));
+            booking.setStatus(APPROVED);
+            entityManager.persist(booking);
+        }
+        entityManager.flush();
+    }
+
+    private long countStatements(BookingRole role, Long userId, int size) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingDto> page = bookingRepository
+                .findAllByState(role, userId, ALL, now, Pageable.ofSize(size));
+
+        assertEquals(size, page.size());
+        assertEquals(booker.getId(), page.get(0).getBooker().getId());
+        assertEquals("item" + (BOOKINGS - 1), page.get(0).getItem().getName());
+        assertEquals(0, statistics.getEntityLoadCount());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("OWNER: ONE STATEMENT PER PAGE")
+    void findAllByState_OWNER_constantStatementCount() {
+        assertEquals(1, countStatements(OWNER, owner.getId(), 1));
+        assertEquals(1, countStatements(OWNER, owner.getId(), BOOKINGS));
+    }
+
+    @Test
+    @DisplayName("BOOKER: ONE STATEMENT PER PAGE")
+    void findAllByState_BOOKER_constantStatementCount() {
+        assertEquals(1, countStatements(BOOKER, booker.getId(), 1));
+        assertEquals(1, countStatements(BOOKER, booker.getId(), BOOKINGS));
+    }
+}
@@ -63,6 +63,7 @@ class BookingServiceImplITest {
                 .end(end)
                 .item(item)
                 .booker(booker)
+                .ownerId(item.getOwner().getId())
                 .status(status).build();
         return bookingRepository.save(booking);
     }
@@ -8,18 +8,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.api.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.api.dto.BookingDto;
+import ru.practicum.shareit.booking.api.dto.BookingMapper;
 import ru.practicum.shareit.booking.api.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.api.dto.BookingStatusBatchResultDto;
+import ru.practicum.shareit.booking.api.index.BookingInterval;
+import ru.practicum.shareit.booking.api.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.api.repository.BookingRepository;
+import ru.practicum.shareit.booking.api.repository.BookingStatusView;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.enums.BookingState;
 import ru.practicum.shareit.booking.entity.enums.BookingStatus;
 import ru.practicum.shareit.constants.Constants;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.StateException;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.service.ItemDetailCache;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.pageable.Cursor;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.utils.InjectResources;
@@ -27,16 +36,21 @@ import ru.practicum.shareit.utils.InjectResources;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.BOOKER;
+import static ru.practicum.shareit.booking.entity.enums.BookingRole.OWNER;
 import static ru.practicum.shareit.booking.entity.enums.BookingState.ALL;
 import static ru.practicum.shareit.booking.entity.enums.BookingState.CURRENT;
 import static ru.practicum.shareit.booking.entity.enums.BookingState.FUTURE;
@@ -63,6 +77,10 @@ class BookingServiceTest extends InjectResources {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemDetailCache itemDetailCache;
 
     private Booking bookingEntity;
     private BookingSimpleDto nextBookingRequest;
@@ -238,6 +256,8 @@ class BookingServiceTest extends InjectResources {
                 .thenReturn(Optional.of(bookingEntity));
         when(userRepository.existsById(ownerId))
                 .thenReturn(true);
+        when(bookingIntervalIndex.reserve(any(BookingInterval.class)))
+                .thenReturn(true);
         doNothing().when(bookingRepository).updateStatusById(status, bookingId);
         if (Constants.LOGGING_IN_TEST) {
             System.out.printf("itemId: %d, ownerId: %d, bookerId: %d, bookingId: %d%n", itemId, ownerId, bookerId, bookingId);
@@ -255,6 +275,52 @@ class BookingServiceTest extends InjectResources {
                 .updateStatusById(status, bookingId);
     }
 
+    @Test
+    void update_APPROVED_whenPeriodIsBooked_thenReturnThrow() {
+        //given
+        Long ownerId = itemStorage.get(1L).getOwner().getId();
+        long bookingId = nextBookingRequest.getId();
+
+        when(bookingRepository.findById(bookingId))
+                .thenReturn(Optional.of(bookingEntity));
+        when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        when(bookingIntervalIndex.reserve(any(BookingInterval.class)))
+                .thenReturn(false);
+        //when
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> bookingService.update(ownerId, bookingId, true));
+        //then
+        assertEquals("The item is already booked for this period.", e.getMessage());
+
+        verify(bookingRepository, never())
+                .updateStatusById(APPROVED, bookingId);
+    }
+
+    @Test
+    void create_whenPeriodIsBooked_thenReturnThrow() {
+        //given
+        Item item = itemStorage.get(1L);
+        Long itemId = item.getId();
+        User booker = userStorage.get(2L);
+        Long bookerId = booker.getId();
+
+        when(itemRepository.findById(itemId))
+                .thenReturn(Optional.of(item));
+        when(userRepository.findById(bookerId))
+                .thenReturn(Optional.of(booker));
+        when(bookingIntervalIndex.isOverlapping(itemId, startNext, endNext))
+                .thenReturn(true);
+        //when
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> bookingService.create(bookerId, nextBookingRequest));
+        //then
+        assertEquals("The item is already booked for this period.", e.getMessage());
+
+        verify(bookingRepository, never())
+                .save(any(Booking.class));
+    }
+
     @Test
     void get_whenOwner_thenReturnDtoRecord() {
         Item item = itemStorage.get(1L);
@@ -273,16 +339,149 @@ class BookingServiceTest extends InjectResources {
                 "You a not the booker/owner of the item");
     }
 
+    @Test
+    void createAll_whenSomeEntriesRefused_thenOthersCreated() {
+        User booker = userStorage.get(2L);
+        Long bookerId = booker.getId();
+        Item free = itemStorage.get(1L);
+        Item own = itemStorage.get(2L);
+        Item booked = itemStorage.get(4L);
+        Long missingId = Long.MAX_VALUE;
+        List<BookingSimpleDto> request = List.of(
+                new BookingSimpleDto(null, startNext, endNext, free.getId()),
+                new BookingSimpleDto(null, startNext, endNext, own.getId()),
+                new BookingSimpleDto(null, startNext, endNext, missingId),
+                new BookingSimpleDto(null, startNext, endNext, booked.getId()));
+
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllWithRequestByIdIn(Set.of(free.getId(), own.getId(), missingId, booked.getId())))
+                .thenReturn(List.of(free, own, booked));
+        when(bookingIntervalIndex.isOverlapping(free.getId(), startNext, endNext)).thenReturn(false);
+        when(bookingIntervalIndex.isOverlapping(booked.getId(), startNext, endNext)).thenReturn(true);
+        // when
+        List<BookingBatchResultDto> response = bookingService.createAll(bookerId, request);
+        // then
+        assertEquals(4, response.size());
+        assertEquals(free.getId(), response.get(0).getBooking().getItem().getId());
+        assertEquals(WAITING, response.get(0).getBooking().getStatus());
+        assertEquals("Access denied. You are owner this item", response.get(1).getError());
+        assertEquals(format(Constants.ITEM_NOT_EXISTS, missingId), response.get(2).getError());
+        assertEquals("The item is already booked for this period.", response.get(3).getError());
+        verify(bookingRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void createAll_whenInvalidUser_thenReturnThrow() {
+        Long bookerId = userStorage.get(2L).getId();
+
+        when(userRepository.findById(bookerId)).thenReturn(Optional.empty());
+        // when
+        NotFoundException e = assertThrows(NotFoundException.class,
+                () -> bookingService.createAll(bookerId, List.of(nextBookingRequest)));
+        // then
+        assertEquals(e.getMessage(), format(Constants.USER_NOT_EXISTS, bookerId));
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    private static BookingStatusView statusView(Long id, Long ownerId, BookingStatus status,
+                                                Long itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    @Test
+    void updateAll_APPROVED_whenSomeSkipped() {
+        Long ownerId = userStorage.get(1L).getId();
+        Long itemId = itemStorage.get(1L).getId();
+        List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L);
+
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.findAllStatusByIdIn(Set.copyOf(ids)))
+                .thenReturn(List.of(
+                        statusView(1L, ownerId, WAITING, itemId, startNext, endNext),
+                        statusView(2L, ownerId + 1, WAITING, itemId, startNext, endNext),
+                        statusView(3L, ownerId, APPROVED, itemId, startNext, endNext),
+                        statusView(4L, ownerId, WAITING, itemId, startNext, endNext)));
+        when(bookingIntervalIndex.reserve(new BookingInterval(1L, itemId, startNext, endNext)))
+                .thenReturn(true);
+        when(bookingIntervalIndex.reserve(new BookingInterval(4L, itemId, startNext, endNext)))
+                .thenReturn(false);
+        when(bookingRepository.updateStatusByIdIn(APPROVED, Set.of(1L), ownerId, WAITING))
+                .thenReturn(1);
+        // when
+        BookingStatusBatchResultDto response = bookingService.updateAll(ownerId, ids, true);
+        // then
+        assertEquals(List.of(1L), response.getUpdated());
+        assertEquals("Access denied. You are not the owner of the item", response.getSkipped().get(2L));
+        assertEquals("The booking status has already been set.", response.getSkipped().get(3L));
+        assertEquals("The item is already booked for this period.", response.getSkipped().get(4L));
+        assertEquals(format(Constants.BOOKING_NOT_EXISTS, 5L), response.getSkipped().get(5L));
+        verify(bookingIntervalIndex).releaseOnRollback(argThat(intervals -> List.copyOf(intervals)
+                .equals(List.of(new BookingInterval(1L, itemId, startNext, endNext)))));
+    }
+
+    @Test
+    void updateAll_REJECTED_whenChangedConcurrently() {
+        Long ownerId = userStorage.get(1L).getId();
+        Long itemId = itemStorage.get(1L).getId();
+        List<Long> ids = List.of(1L, 2L);
+
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.findAllStatusByIdIn(Set.copyOf(ids)))
+                .thenReturn(List.of(
+                        statusView(1L, ownerId, WAITING, itemId, startNext, endNext),
+                        statusView(2L, ownerId, WAITING, itemId, startNext, endNext)))
+                .thenReturn(List.of(
+                        statusView(1L, ownerId, REJECTED, itemId, startNext, endNext),
+                        statusView(2L, ownerId, APPROVED, itemId, startNext, endNext)));
+        when(bookingRepository.updateStatusByIdIn(REJECTED, Set.of(1L, 2L), ownerId, WAITING))
+                .thenReturn(1);
+        // when
+        BookingStatusBatchResultDto response = bookingService.updateAll(ownerId, ids, false);
+        // then
+        assertEquals(List.of(1L), response.getUpdated());
+        assertEquals("The booking status has already been set.", response.getSkipped().get(2L));
+        verify(bookingIntervalIndex, never()).reserve(any());
+    }
+
     @Test
     void getAllByUser_CURRENT() {
         Long bookerId = userStorage.get(2L).getId();
 
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // CURRENT
-                .findAllByBooker_IdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        bookerId, now, now, pageable))
+                .findAllByState(BOOKER, bookerId, CURRENT, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -295,11 +494,11 @@ class BookingServiceTest extends InjectResources {
     void getAllByUser_PAST() {
         Long bookerId = userStorage.get(2L).getId();
 
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // PAST
-                .findAllByBooker_IdAndEndBeforeOrderByStartDesc(bookerId, now, pageable))
+                .findAllByState(BOOKER, bookerId, PAST, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -313,11 +512,11 @@ class BookingServiceTest extends InjectResources {
     void getAllByUser_ALL() {
         Long bookerId = userStorage.get(2L).getId();
 
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // ALL
-                .findAllByBooker_IdOrderByStartDesc(bookerId, pageable))
+                .findAllByState(BOOKER, bookerId, ALL, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -330,11 +529,11 @@ class BookingServiceTest extends InjectResources {
     void getAllByUser_FUTURE() {
         Long bookerId = userStorage.get(2L).getId();
 
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // FUTURE
-                .findAllByBooker_IdAndStartAfterOrderByStartDesc(bookerId, now, pageable))
+                .findAllByState(BOOKER, bookerId, FUTURE, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -348,12 +547,11 @@ class BookingServiceTest extends InjectResources {
     void getAllByUser_WAITING() {
         Long bookerId = userStorage.get(2L).getId();
 
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // WAITING
-                .findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, WAITING, pageable))
+                .findAllByState(BOOKER, bookerId, BookingState.WAITING, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -367,12 +565,11 @@ class BookingServiceTest extends InjectResources {
     void getAllByUser_REJECTED() {
         Long bookerId = userStorage.get(2L).getId();
 
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(bookerId)).thenReturn(true);
         when(bookingRepository // REJECTED
-                .findAllByBooker_IdAndStatusOrderByStartDesc(
-                        bookerId, REJECTED, pageable))
+                .findAllByState(BOOKER, bookerId, BookingState.REJECTED, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -384,6 +581,24 @@ class BookingServiceTest extends InjectResources {
         assertEquals(1, response.size());
     }
 
+    @Test
+    void getAllByUser_ALL_byCursor() {
+        Long bookerId = userStorage.get(2L).getId();
+        Cursor cursor = new Cursor(now, 5L);
+
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
+
+        when(userRepository.existsById(bookerId)).thenReturn(true);
+        when(bookingRepository // ALL
+                .findAllByState(BOOKER, bookerId, ALL, now, cursor, 10))
+                .thenReturn(bookingList);
+        // when
+        List<BookingDto> response = bookingService
+                .getAllByUser(bookerId, ALL, now, cursor, 10);
+        // then
+        assertEquals(1, response.size());
+    }
+
     @Test
     void getAllByUser_whenInvalidUser_thenReturnThrow() {
         Long bookerId = userStorage.get(2L).getId();
@@ -403,12 +618,11 @@ class BookingServiceTest extends InjectResources {
     @Test
     void getAllByOwner_CURRENT() {
         Long ownerId = itemStorage.get(1L).getOwner().getId();
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
         when(bookingRepository // CURRENT
-                .findAllByItem_Owner_IdAndStartBeforeAndEndAfterByStartDesc(
-                        ownerId, now, now, pageable))
+                .findAllByState(OWNER, ownerId, CURRENT, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -420,12 +634,12 @@ class BookingServiceTest extends InjectResources {
     @Test
     void getAllByOwner_PAST() {
         Long ownerId = itemStorage.get(1L).getOwner().getId();
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
 
         when(bookingRepository // PAST
-                .findAllByItem_Owner_IdAndEndBeforeOrderByStartDesc(ownerId, now, pageable))
+                .findAllByState(OWNER, ownerId, PAST, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -437,11 +651,11 @@ class BookingServiceTest extends InjectResources {
     @Test
     void getAllByOwner_ALL() {
         Long ownerId = itemStorage.get(1L).getOwner().getId();
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
         when(bookingRepository // ALL
-                .findAllByItem_Owner_IdOrderByStartDesc(ownerId, pageable))
+                .findAllByState(OWNER, ownerId, ALL, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -453,11 +667,11 @@ class BookingServiceTest extends InjectResources {
     @Test
     void getAllByOwner_FUTURE() {
         Long ownerId = itemStorage.get(1L).getOwner().getId();
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
         when(bookingRepository // FUTURE
-                .findAllByItem_Owner_IdAndStartAfterOrderByStartDesc(ownerId, now, pageable))
+                .findAllByState(OWNER, ownerId, FUTURE, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -469,12 +683,12 @@ class BookingServiceTest extends InjectResources {
     @Test
     void getAllByOwner_WAITING() {
         Long ownerId = itemStorage.get(1L).getOwner().getId();
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
 
         when(bookingRepository // WAITING
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(ownerId, WAITING, pageable))
+                .findAllByState(OWNER, ownerId, BookingState.WAITING, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -486,12 +700,12 @@ class BookingServiceTest extends InjectResources {
     @Test
     void getAllByOwner_REJECTED() {
         Long ownerId = itemStorage.get(1L).getOwner().getId();
-        List<Booking> bookingList = List.of(bookingEntity);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
 
         when(userRepository.existsById(ownerId)).thenReturn(true);
 
         when(bookingRepository // REJECTED
-                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(ownerId, REJECTED, pageable))
+                .findAllByState(OWNER, ownerId, BookingState.REJECTED, now, pageable))
                 .thenReturn(bookingList);
         // when
         List<BookingDto> response = bookingService
@@ -500,6 +714,23 @@ class BookingServiceTest extends InjectResources {
         assertEquals(1, response.size());
     }
 
+    @Test
+    void getAllByOwner_CURRENT_byCursor() {
+        Long ownerId = itemStorage.get(1L).getOwner().getId();
+        Cursor cursor = new Cursor(now, 5L);
+        List<BookingDto> bookingList = List.of(BookingMapper.INSTANCE.toDto(bookingEntity));
+
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository // CURRENT
+                .findAllByState(OWNER, ownerId, CURRENT, now, cursor, 10))
+                .thenReturn(bookingList);
+        // when
+        List<BookingDto> response = bookingService
+                .getAllByOwner(ownerId, CURRENT, now, cursor, 10);
+        // then
+        assertEquals(1, response.size());
+    }
+
     @Test
     void getAllByOwner_whenInvalidUser_thenReturnThrow() {
         Long ownerId = itemStorage.get(1L).getOwner().getId();
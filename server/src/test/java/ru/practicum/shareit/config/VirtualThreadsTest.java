@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+    private static final boolean SUPPORTED = Runtime.version().feature() >= 21;
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    @Test
+    void newExecutor_runsOnVirtualThreads() throws Exception {
+        assumeTrue(SUPPORTED);
+        ExecutorService executor = VirtualThreads.newExecutor();
+
+        Thread thread = executor.submit(Thread::currentThread).get(1, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertTrue(isVirtual(thread));
+    }
+
+    @Test
+    void factory_namesVirtualThreads() throws Exception {
+        assumeTrue(SUPPORTED);
+        Thread thread = VirtualThreads.factory("test-").newThread(() -> {
+        });
+
+        assertTrue(isVirtual(thread));
+        assertEquals("test-1", thread.getName());
+    }
+
+    @Test
+    void newExecutor_whenOlderRuntime_thenException() {
+        assumeTrue(!SUPPORTED);
+
+        assertThrows(IllegalStateException.class, VirtualThreads::newExecutor);
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.factory("test-"));
+    }
+}
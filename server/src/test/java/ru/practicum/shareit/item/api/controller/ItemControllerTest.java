@@ -20,6 +20,7 @@ import ru.practicum.shareit.item.api.dto.CommentSimpleDto;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
 import ru.practicum.shareit.item.api.service.ItemServiceImpl;
+import ru.practicum.shareit.pageable.Cursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -29,11 +30,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.constants.Constants.CREATE_COMMENT;
 import static ru.practicum.shareit.constants.Constants.CREATE_ITEM;
+import static ru.practicum.shareit.constants.Constants.GET_COMMENTS;
 import static ru.practicum.shareit.constants.Constants.GET_ITEM;
+import static ru.practicum.shareit.constants.Constants.HEADER_NEXT_CURSOR;
 import static ru.practicum.shareit.constants.Constants.HEADER_USER_ID;
 import static ru.practicum.shareit.constants.Constants.UPDATE_ITEM;
 
@@ -247,4 +251,39 @@ class ItemControllerTest {
 
         verify(itemService).createComment(Mockito.any(CommentSimpleDto.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET " + GET_COMMENTS + " when the page is full - return " + HEADER_NEXT_CURSOR)
+    void getComments_whenFullPage_thenReturnNextCursor() throws Exception {
+        Cursor cursor = new Cursor(now.plusDays(1), 2L);
+        when(itemService.getComments(1L, 1L, cursor, 1))
+                .thenReturn(List.of(commentResponse));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(GET_COMMENTS, 1)
+                .param("size", "1")
+                .param("cursor", cursor.encode())
+                .header(HEADER_USER_ID, 1);
+
+        mvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(commentResponse.getId()))
+                .andExpect(header().string(HEADER_NEXT_CURSOR, new Cursor(now, 1L).encode()));
+    }
+
+    @Test
+    @DisplayName("GET " + GET_COMMENTS + " when the page is the last - no " + HEADER_NEXT_CURSOR)
+    void getComments_whenLastPage_thenNoNextCursor() throws Exception {
+        when(itemService.getComments(1L, 1L, null, 2))
+                .thenReturn(List.of(commentResponse));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(GET_COMMENTS, 1)
+                .param("size", "2")
+                .header(HEADER_USER_ID, 1);
+
+        mvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HEADER_NEXT_CURSOR));
+    }
+}
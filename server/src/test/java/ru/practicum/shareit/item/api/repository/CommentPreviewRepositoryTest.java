@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.CommentDto;
+import ru.practicum.shareit.item.entity.CommentEntity;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class CommentPreviewRepositoryTest {
+    private static final int COMMENTS = 5;
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private CommentRepository commentRepository;
+    private Item commented;
+    private Item silent;
+    private final List<Long> commentIds = new ArrayList<>();
+
+    private User getNewUser(int number) {
+        User user = new User();
+        user.setName("user" + number);
+        user.setEmail("user" + number + "@mail.ru");
+        return entityManager.persist(user);
+    }
+
+    private Item getNewItem(User owner, int number) {
+        Item item = new Item();
+        item.setName("item" + number);
+        item.setDescription("description" + number);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return entityManager.persist(item);
+    }
+
+    @BeforeEach
+    void setUp() {
+        User owner = getNewUser(1);
+        User author = getNewUser(2);
+        commented = getNewItem(owner, 1);
+        silent = getNewItem(owner, 2);
+        for (int i = 0; i < COMMENTS; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("comment" + i);
+            comment.setItem(commented);
+            comment.setAuthor(author);
+            // two comments share the time, the id breaks the tie
+            comment.setCreated(now.plusDays(i / 2));
+            commentIds.add(entityManager.persist(comment).getId());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("PREVIEW: NEWEST N PER ITEM WITH THE TOTAL")
+    void findPreviewByItem_IdIn() {
+        List<ItemCommentPreview> preview = commentRepository
+                .findPreviewByItem_IdIn(List.of(commented.getId(), silent.getId()), 2);
+
+        assertEquals(2, preview.size());
+        assertEquals(commentIds.get(4), preview.get(0).getId());
+        assertEquals(commentIds.get(3), preview.get(1).getId());
+        assertEquals(commented.getId(), preview.get(0).getItemId());
+        assertEquals("user2", preview.get(0).getAuthorName());
+        assertEquals(COMMENTS, preview.get(0).getTotal());
+    }
+
+    @Test
+    @DisplayName("KEYSET: PAGES DO NOT OVERLAP")
+    void findPageByItem_IdAfter() {
+        List<CommentDto> first = commentRepository.findPageByItem_Id(commented.getId(), Pageable.ofSize(2));
+        CommentDto last = first.get(1);
+        List<CommentDto> second = commentRepository.findPageByItem_IdAfter(
+                commented.getId(), last.getCreated(), last.getId(), Pageable.ofSize(2));
+        last = second.get(1);
+        List<CommentDto> third = commentRepository.findPageByItem_IdAfter(
+                commented.getId(), last.getCreated(), last.getId(), Pageable.ofSize(2));
+
+        assertEquals(List.of(commentIds.get(4), commentIds.get(3)), ids(first));
+        assertEquals(List.of(commentIds.get(2), commentIds.get(1)), ids(second));
+        assertEquals(List.of(commentIds.get(0)), ids(third));
+    }
+
+    @Test
+    @DisplayName("ALL OF ITEMS: NEWEST FIRST, THE ID BREAKS THE TIE")
+    void findAllViewByItem_IdIn() {
+        List<Long> ids = commentRepository.findAllViewByItem_IdIn(List.of(commented.getId(), silent.getId()))
+                .stream()
+                .map(ItemCommentView::getId)
+                .collect(toList());
+
+        assertEquals(List.of(commentIds.get(4), commentIds.get(3), commentIds.get(2),
+                commentIds.get(1), commentIds.get(0)), ids);
+    }
+
+    @Test
+    @DisplayName("ALL OF ITEM: NEWEST FIRST, THE ID BREAKS THE TIE")
+    void findAllDtoByItem_Id() {
+        List<CommentDto> comments = commentRepository.findAllDtoByItem_Id(commented.getId());
+
+        assertEquals(List.of(commentIds.get(4), commentIds.get(3), commentIds.get(2),
+                commentIds.get(1), commentIds.get(0)), ids(comments));
+    }
+
+    @Test
+    @DisplayName("ALL OF ITEM: WITH THE AUTHOR NAME")
+    void findAllDtoByItem_Id_withAuthorName() {
+        List<CommentDto> comments = commentRepository.findAllDtoByItem_Id(commented.getId());
+
+        assertEquals("user2", comments.get(0).getAuthorName());
+        assertEquals("comment4", comments.get(0).getText());
+        assertEquals(now.plusDays(2), comments.get(0).getCreated());
+        assertEquals(List.of(), commentRepository.findAllDtoByItem_Id(silent.getId()));
+    }
+
+    private static List<Long> ids(List<CommentDto> comments) {
+        return comments.stream()
+                .map(CommentDto::getId)
+                .collect(toList());
+    }
+}
@@ -50,7 +50,7 @@ class CommentRepositoryTest {
     }
 
     @Test
-    void findByItem_IdInOrderByCreatedDesc() {
+    void findAllViewByItem_IdIn() {
         User owner = getNewUser();
         Item item1 = getNewItem(owner);
         Item item2 = getNewItem(owner);
@@ -58,19 +58,7 @@ class CommentRepositoryTest {
         getNewComment(author, item1);
 
         assertEquals(1, commentRepository
-                .findByItem_IdInOrderByCreatedDesc(List.of(item1.getId(), item2.getId()))
+                .findAllViewByItem_IdIn(List.of(item1.getId(), item2.getId()))
                 .size());
     }
-
-    @Test
-    void findAllByItem_IdOrderByCreatedDesc() {
-        User owner = getNewUser();
-        Item item = getNewItem(owner);
-        User author = getNewUser();
-        getNewComment(author, item);
-
-        assertEquals(1, commentRepository
-                .findAllByItem_IdOrderByCreatedDesc(item.getId())
-                .size());
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.api.repository.UserRepository;
+import ru.practicum.shareit.user.entity.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The PostgreSQL statement of {@link ItemPatchRepositoryImpl}, the H2 one is covered by {@link ItemRepositoryITest}.
+ * Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ItemPatchPostgresITest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+    }
+
+    private User getNewUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return userRepository.save(user);
+    }
+
+    private Item getNewItem(User owner) {
+        Item item = new Item();
+        item.setName("Шуруповёрт");
+        item.setDescription("Аккумуляторный");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+        entityManager.flush();
+        entityManager.clear();
+        return item;
+    }
+
+    private ItemSimpleDto findSimple(long itemId) {
+        return itemRepository.findAllSimpleByIdIn(List.of(itemId)).get(0);
+    }
+
+    @Test
+    void patch_returnsPreviousAndChangedItem() {
+        User owner = getNewUser("owner");
+        Item item = getNewItem(owner);
+        ItemSimpleDto before = findSimple(item.getId());
+
+        ItemPatch patch = itemRepository.patch(item.getId(), owner.getId(), null, "Кейс в комплекте.", false)
+                .orElseThrow();
+
+        ItemSimpleDto after = findSimple(item.getId());
+        assertEquals(before, patch.getBefore());
+        assertEquals(after, patch.getAfter());
+        assertEquals("Шуруповёрт", after.getName());
+        assertEquals("Кейс в комплекте.", after.getDescription());
+        assertEquals(false, after.getAvailable());
+    }
+
+    @Test
+    void patch_whenNotOwner_thenEmptyAndUnchanged() {
+        User owner = getNewUser("owner");
+        User other = getNewUser("other");
+        Item item = getNewItem(owner);
+        ItemSimpleDto before = findSimple(item.getId());
+
+        assertTrue(itemRepository.patch(item.getId(), other.getId(), "Дрель", null, false).isEmpty());
+        assertEquals(before, findSimple(item.getId()));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.api.repository.UserRepository;
+import ru.practicum.shareit.user.entity.User;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The PostgreSQL statement of {@link ItemRelevanceRepositoryImpl}, the H2 one is covered by {@link ItemRepositoryITest}.
+ * Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ItemRelevancePostgresITest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+    }
+
+    private User getNewUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return userRepository.save(user);
+    }
+
+    private void getNewItem(User owner, String name, String description) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<String> names(List<ItemSimpleDto> items) {
+        return items.stream().map(ItemSimpleDto::getName).collect(toList());
+    }
+
+    @Test
+    void searchByRelevance_ranksNameAboveDescription() {
+        User owner = getNewUser("owner");
+        getNewItem(owner, "Перфоратор", "Дрель не нужна");
+        getNewItem(owner, "Дрель", "Ударная");
+        getNewItem(owner, "Пила", "Цепная");
+
+        assertEquals(List.of("Дрель", "Перфоратор"),
+                names(itemRepository.searchByRelevance(List.of("ДРЕЛЬ"), 3, Pageable.ofSize(10))));
+    }
+
+    @Test
+    void searchByRelevance_whenWordsMisspelled_thenFindsSimilar() {
+        User owner = getNewUser("owner");
+        getNewItem(owner, "Шуруповёрт", "Аккумуляторный");
+        getNewItem(owner, "Пила", "Цепная");
+
+        assertEquals(List.of("Шуруповёрт"), names(itemRepository.searchByRelevance(
+                List.of("ШУРУПОВЕРТ", "АКУМУЛЯТОРНЫЙ"), 2, Pageable.ofSize(10))));
+    }
+
+    @Test
+    void searchByRelevance_pagesInDatabase() {
+        User owner = getNewUser("owner");
+        for (int i = 0; i < 5; i++) {
+            getNewItem(owner, "Дрель " + i, "Ударная");
+        }
+
+        List<ItemSimpleDto> all = itemRepository.searchByRelevance(List.of("ДРЕЛЬ"), 5, Pageable.ofSize(10));
+
+        assertEquals(5, all.size());
+        assertEquals(List.of(all.get(4)), itemRepository.searchByRelevance(List.of("ДРЕЛЬ"), 5, PageRequest.of(2, 2)));
+    }
+}
@@ -1,28 +1,38 @@
 package ru.practicum.shareit.item.api.repository;
 
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.api.repository.UserRepository;
 import ru.practicum.shareit.user.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ru.practicum.shareit.constants.Constants.RANDOM;
 
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class ItemRepositoryITest {
 
     private final Pageable pageable = Pageable.ofSize(10);
 
+    @Autowired
+    private TestEntityManager entityManager;
     @Autowired
     private ItemRepository itemRepository;
     @Autowired
@@ -92,150 +102,226 @@ public class ItemRepositoryITest {
         String search = "оВёрТ";
 
         //when
-        List<Item> searchItemByNameOrDescription = itemRepository.searchItemByNameOrDescription(search, pageable);
+        List<ItemSimpleDto> searchItemByNameOrDescription = itemRepository.searchItemByNameOrDescription(search, pageable);
 
         //then
         assertEquals(2, searchItemByNameOrDescription.size());
     }
 
     @Test
-    void existsByIdAndOwner_Id() {
-        //given
-        List<User> users = getListUsers();
-        getListItems(users);
-        long ownerId = users.get(0).getId();
+    void searchItemByNameOrDescription_skipsUnavailable() {
+        User owner = getNewUser();
+        getNewItem(owner, "Дрель", "Ударная");
+        Item unavailable = getNewItem(owner);
+        unavailable.setName("Дрель аккумуляторная");
+        unavailable.setAvailable(false);
+        itemRepository.save(unavailable);
 
-        //then
-        List<Item> itemsByOwner = itemRepository.findAllByOwner_Id(ownerId, pageable);
+        //when
+        List<ItemSimpleDto> found = itemRepository.searchItemByNameOrDescription("дРеЛь", pageable);
 
         //then
-        assertEquals(3, itemsByOwner.size());
+        assertEquals(1, found.size());
+        assertEquals("Дрель", found.get(0).getName());
     }
 
     @Test
-    void deleteByIdAndOwner_Id() {
-        // given
-        List<User> users = getListUsers();
-        List<Item> items = getListItems(users);
-        long ownerId = users.get(0).getId();
-        long itemId = items.get(0).getId();
-
-        List<Item> itemsBefore = itemRepository.findAllByOwner_Id(ownerId, pageable);
-        assertEquals(3, itemsBefore.size());
+    void searchByRelevance_ranksNameAboveDescription() {
+        User owner = getNewUser();
+        getNewItem(owner, "Перфоратор", "Дрель не нужна");
+        getNewItem(owner, "Дрель", "Ударная");
+        getNewItem(owner, "Пила", "Цепная");
 
         //when
-        itemRepository.deleteByIdAndOwner_Id(itemId, ownerId);
+        List<ItemSimpleDto> found = itemRepository.searchByRelevance(List.of("ДРЕЛЬ"), 3, pageable);
 
         //then
-        List<Item> itemsAfter = itemRepository.findAllByOwner_Id(ownerId, pageable);
-        assertEquals(2, itemsAfter.size());
+        assertEquals(List.of("Дрель", "Перфоратор"), found.stream().map(ItemSimpleDto::getName).collect(toList()));
     }
 
     @Test
-    void updateNameAndDescriptionById() {
-        //given
-        List<User> users = getListUsers();
-        List<Item> items = getListItems(users);
-        long itemId = items.get(0).getId();
-
-        String name = "Шуруповёрт сетевой";
-        String description = "Кейс в комплекте.";
+    void searchByRelevance_whenWordsMisspelled_thenFindsSimilar() {
+        User owner = getNewUser();
+        getNewItem(owner, "Шуруповёрт", "Аккумуляторный");
+        getNewItem(owner, "Пила", "Цепная");
 
         //when
-        itemRepository.updateNameAndDescriptionById(name, description, itemId);
+        List<ItemSimpleDto> found = itemRepository.searchByRelevance(List.of("ШУРУПОВЕРТ", "АКУМУЛЯТОРНЫЙ"), 2, pageable);
 
         //then
-        Item itemUpdate = itemRepository.getReferenceById(itemId);
-        assertEquals(itemUpdate.getName(), name);
-        assertEquals(itemUpdate.getDescription(), description);
+        assertEquals(1, found.size());
+        assertEquals("Шуруповёрт", found.get(0).getName());
     }
 
     @Test
-    void updateNameAndAvailableById() {
-        //given
+    void searchByRelevance_pagesInDatabase_andSkipsUnavailable() {
         User owner = getNewUser();
-        Item item = getNewItem(owner);
-        long itemId = item.getId();
-
-        String name = "Шуруповёрт сетевой";
-        boolean available = false;
+        for (int i = 0; i < 5; i++) {
+            getNewItem(owner, "Дрель " + i, "Ударная");
+        }
+        Item unavailable = getNewItem(owner);
+        unavailable.setName("Дрель аккумуляторная");
+        unavailable.setAvailable(false);
+        itemRepository.save(unavailable);
 
         //when
-        itemRepository.updateNameAndAvailableById(name, available, itemId);
+        List<ItemSimpleDto> all = itemRepository.searchByRelevance(List.of("ДРЕЛЬ"), 6, pageable);
+        List<ItemSimpleDto> last = itemRepository.searchByRelevance(List.of("ДРЕЛЬ"), 6, PageRequest.of(2, 2));
 
         //then
-        Item itemUpdate = itemRepository.getReferenceById(itemId);
-        assertEquals(itemUpdate.getName(), name);
-        assertFalse(itemUpdate.isAvailable());
+        assertEquals(5, all.size());
+        assertEquals(List.of(all.get(4)), last);
     }
 
     @Test
-    void updateDescriptionAndAvailableById() {
-        //given
-        List<User> users = getListUsers();
-        List<Item> items = getListItems(users);
-        long itemId = items.get(0).getId();
-
-        String description = "Кейс в комплекте.";
-        boolean available = false;
+    void findAllSimpleInOrder() {
+        User owner = getNewUser();
+        Item first = getNewItem(owner);
+        Item second = getNewItem(owner);
 
         //when
-        itemRepository.updateDescriptionAndAvailableById(description, available, itemId);
+        List<ItemSimpleDto> found = itemRepository.findAllSimpleInOrder(List.of(second.getId(), first.getId()));
 
         //then
-        Item itemUpdate = itemRepository.getReferenceById(itemId);
-        assertEquals(itemUpdate.getDescription(), description);
-        assertFalse(itemUpdate.isAvailable());
+        assertEquals(List.of(second.getId(), first.getId()),
+                found.stream().map(ItemSimpleDto::getId).collect(toList()));
     }
 
     @Test
-    void updateNameById() {
+    void existsByIdAndOwner_Id() {
         //given
         List<User> users = getListUsers();
-        List<Item> items = getListItems(users);
-        long itemId = items.get(0).getId();
-
-        String name = "Шуруповёрт сетевой";
+        getListItems(users);
+        long ownerId = users.get(0).getId();
 
-        //when
-        itemRepository.updateNameById(name, itemId);
+        //then
+        List<Item> itemsByOwner = itemRepository.findAllByOwner_Id(ownerId, pageable);
 
         //then
-        Item itemUpdate = itemRepository.getReferenceById(itemId);
-        assertEquals(itemUpdate.getName(), name);
+        assertEquals(3, itemsByOwner.size());
     }
 
     @Test
-    void updateDescriptionById() {
-        //given
+    void deleteByIdAndOwner_Id() {
+        // given
         List<User> users = getListUsers();
         List<Item> items = getListItems(users);
+        long ownerId = users.get(0).getId();
         long itemId = items.get(0).getId();
 
-        String description = "Кейс в комплекте.";
+        List<Item> itemsBefore = itemRepository.findAllByOwner_Id(ownerId, pageable);
+        assertEquals(3, itemsBefore.size());
 
         //when
-        itemRepository.updateDescriptionById(description, itemId);
+        itemRepository.deleteByIdAndOwner_Id(itemId, ownerId);
 
         //then
-        Item itemUpdate = itemRepository.getReferenceById(itemId);
-        assertEquals(itemUpdate.getDescription(), description);
+        List<Item> itemsAfter = itemRepository.findAllByOwner_Id(ownerId, pageable);
+        assertEquals(2, itemsAfter.size());
+    }
+
+    private ItemSimpleDto findSimple(long itemId) {
+        return itemRepository.findAllSimpleByIdIn(List.of(itemId)).get(0);
     }
 
     @Test
-    void updateAvailableById() {
-        //given
-        List<User> users = getListUsers();
-        List<Item> items = getListItems(users);
-        long itemId = items.get(0).getId();
+    void patch_anyCombinationOfFields() {
+        User owner = getNewUser();
+        String[] names = {null, "Шуруповёрт сетевой"};
+        String[] descriptions = {null, "Кейс в комплекте."};
+        Boolean[] availables = {null, false};
+        for (String name : names) {
+            for (String description : descriptions) {
+                for (Boolean available : availables) {
+                    if (name == null && description == null && available == null) {
+                        continue;
+                    }
+                    Item item = getNewItem(owner);
+                    long itemId = item.getId();
+                    ItemSimpleDto before = findSimple(itemId);
+
+                    ItemPatch patch = itemRepository.patch(itemId, owner.getId(), name, description, available)
+                            .orElseThrow();
+
+                    ItemSimpleDto after = findSimple(itemId);
+                    assertEquals(before, patch.getBefore());
+                    assertEquals(after, patch.getAfter());
+                    assertEquals(name == null ? before.getName() : name, after.getName());
+                    assertEquals(description == null ? before.getDescription() : description,
+                            after.getDescription());
+                    assertEquals(available == null ? before.getAvailable() : available, after.getAvailable());
+                }
+            }
+        }
+    }
 
-        boolean available = false;
+    @Test
+    void patch_whenNotOwner_thenEmptyAndUnchanged() {
+        User owner = getNewUser();
+        User other = getNewUser();
+        Item item = getNewItem(owner);
+        long itemId = item.getId();
+        ItemSimpleDto before = findSimple(itemId);
 
-        //when
-        itemRepository.updateAvailableById(available, itemId);
+        assertTrue(itemRepository.patch(itemId, other.getId(), "Шуруповёрт сетевой", null, false).isEmpty());
+        assertTrue(itemRepository.patch(itemId + 1000, owner.getId(), "Шуруповёрт сетевой", null, null)
+                .isEmpty());
+        assertEquals(before, findSimple(itemId));
+    }
 
-        //then
-        Item itemUpdate = itemRepository.getReferenceById(itemId);
-        assertFalse(itemUpdate.isAvailable());
+    @Test
+    void patch_oneStatement() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        Statistics statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        entityManager.flush();
+        statistics.clear();
+
+        itemRepository.patch(item.getId(), owner.getId(), "Шуруповёрт сетевой", "Кейс в комплекте.", false);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithOwnerAndRequestById_oneStatement() {
+        User owner = getNewUser();
+        User requester = getNewUser();
+        ItemRequest request = entityManager.persist(ItemRequest.builder()
+                .description("Нужен шуруповёрт")
+                .requester(requester)
+                .created(LocalDateTime.of(2000, 1, 1, 12, 0))
+                .build());
+        Item item = getNewItem(owner);
+        item.setRequest(request);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        Item found = itemRepository.findWithOwnerAndRequestById(item.getId()).orElseThrow();
+
+        assertEquals(owner.getName(), found.getOwner().getName());
+        assertEquals("Нужен шуруповёрт", found.getRequest().getDescription());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithOwnerAndRequestById_whenNoRequest_thenOwnerOnly() {
+        User owner = getNewUser();
+        Item item = getNewItem(owner);
+        entityManager.flush();
+        entityManager.clear();
+
+        Item found = itemRepository.findWithOwnerAndRequestById(item.getId()).orElseThrow();
+
+        assertEquals(owner.getId(), found.getOwner().getId());
+        assertNull(found.getRequest());
+        assertTrue(itemRepository.findWithOwnerAndRequestById(item.getId() + 1000).isEmpty());
     }
-}
\ No newline at end of file
+}
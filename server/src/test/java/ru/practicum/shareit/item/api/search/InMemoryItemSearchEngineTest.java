@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.api.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.ItemMapper;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.item.api.search.ItemSearchSort.ID;
+import static ru.practicum.shareit.item.api.search.ItemSearchSort.RELEVANCE;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    private final Pageable pageable = Pageable.ofSize(10);
+    private final Map<Long, Item> items = new HashMap<>();
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine engine;
+
+    private Item newItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        items.put(id, item);
+        return item;
+    }
+
+    @BeforeEach
+    void setUp() {
+        newItem(1L, "Шуруповёрт", "В кейсе", true);
+        newItem(2L, "Гайковёрт", "нету", true);
+        newItem(3L, "Дрель", "Ударная, с шуруповёртом", true);
+        when(itemRepository.findAllSearchDocuments(eq(0L), any(Pageable.class)))
+                .thenReturn(items.values().stream()
+                        .map(item -> new ItemSearchDocument(item.getId(), item.getName(), item.getDescription()))
+                        .collect(toList()));
+        lenient().when(itemRepository.findAllSimpleInOrder(anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream()
+                        .map(items::get)
+                        .map(ItemMapper.INSTANCE::toSimpleDto)
+                        .collect(toList()));
+        engine.rebuild();
+    }
+
+    private List<Long> search(String text, Pageable pageable) {
+        return search(text, ID, pageable);
+    }
+
+    private List<Long> search(String text, ItemSearchSort sort, Pageable pageable) {
+        return engine.search(text, sort, pageable).stream()
+                .map(ItemSimpleDto::getId)
+                .collect(toList());
+    }
+
+    @Test
+    void search_bySubstringOfNameOrDescription() {
+        assertEquals(3, engine.size());
+        assertEquals(List.of(1L, 2L, 3L), search("оВёрТ", pageable));
+        assertEquals(List.of(1L, 3L), search("ШУРУП", pageable));
+        assertEquals(List.of(1L), search("в к", pageable));
+        assertEquals(List.of(), search("перфоратор", pageable));
+    }
+
+    @Test
+    void search_shorterThanTrigram() {
+        assertEquals(List.of(3L), search("Ь", pageable));
+        assertEquals(List.of(1L, 2L, 3L), search("рт", pageable));
+    }
+
+    @Test
+    void search_page() {
+        assertEquals(List.of(2L), search("ёрт", PageRequest.of(1, 1)));
+        assertEquals(List.of(3L), search("ёрт", PageRequest.of(2, 1)));
+    }
+
+    @Test
+    void indexed_updatesIndex() {
+        engine.indexed(ItemMapper.INSTANCE.toSimpleDto(newItem(2L, "Перфоратор", "нету", true)));
+        engine.indexed(ItemMapper.INSTANCE.toSimpleDto(newItem(4L, "Гайковёрт", "пневматический", true)));
+        engine.indexed(ItemMapper.INSTANCE.toSimpleDto(newItem(1L, "Шуруповёрт", "В кейсе", false)));
+
+        assertEquals(List.of(3L, 4L), search("вёрт", pageable));
+        assertEquals(List.of(2L), search("перфо", pageable));
+    }
+
+    @Test
+    void search_byRelevance_nameFirst() {
+        newItem(4L, "Отвёртка", "Крестовая", true);
+        engine.indexed(ItemMapper.INSTANCE.toSimpleDto(items.get(4L)));
+
+        assertEquals(List.of(1L, 3L), search("шуруповёрт", RELEVANCE, pageable));
+        assertEquals(List.of(3L), search("шуруповёрт", RELEVANCE, PageRequest.of(1, 1)));
+    }
+
+    @Test
+    void search_byRelevance_withTypos() {
+        assertEquals(List.of(1L), search("шурупавёрт", RELEVANCE, pageable));
+        assertEquals(List.of(3L), search("друль ударнея", RELEVANCE, pageable));
+        assertEquals(List.of(), search("перфоратор", RELEVANCE, pageable));
+    }
+
+    @Test
+    void search_doesNotLoadMissedItems() {
+        when(itemRepository.findAllSearchDocuments(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+        engine.rebuild();
+
+        assertEquals(List.of(), search("вёрт", pageable));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.api.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemRelevanceTest {
+    private final Pageable pageable = Pageable.ofSize(10);
+
+    @Test
+    void terms() {
+        assertEquals(List.of("ДРЕЛЬ", "УДАРНАЯ"), ItemRelevance.terms(" дрель, Ударная дрель!"));
+        assertEquals(List.of(), ItemRelevance.terms("  "));
+    }
+
+    @Test
+    void editDistance() {
+        assertEquals(0, ItemRelevance.editDistance("ДРЕЛЬ", "ДРЕЛЬ", 1));
+        assertEquals(1, ItemRelevance.editDistance("ДРЕЛЬ", "ДРЕЛ", 1));
+        assertEquals(1, ItemRelevance.editDistance("ДРЕЛЬ", "ДРУЛЬ", 1));
+        assertEquals(2, ItemRelevance.editDistance("ДРЕЛЬ", "ДУРЕЛЬЬ", 1));
+        assertEquals(2, ItemRelevance.editDistance("ДРЕЛЬ", "ПИЛА", 1));
+    }
+
+    @Test
+    void rank_nameBeforeDescription() {
+        List<ItemSearchDocument> candidates = List.of(
+                new ItemSearchDocument(1L, "Набор бит", "Для дрели и шуруповёрта"),
+                new ItemSearchDocument(2L, "Дрель", "Ударная"),
+                new ItemSearchDocument(3L, "Пила", "Ручная"));
+
+        assertEquals(List.of(2L, 1L), ItemRelevance.rank(candidates, List.of("ДРЕЛ"), 3, pageable));
+        assertEquals(List.of(1L), ItemRelevance.rank(candidates, List.of("ДРЕЛ"), 3, PageRequest.of(1, 1)));
+    }
+
+    @Test
+    void rank_rareWordFirst() {
+        List<ItemSearchDocument> candidates = List.of(
+                new ItemSearchDocument(1L, "Палатка", "Двухместная"),
+                new ItemSearchDocument(2L, "Палатка", "Туристическая"),
+                new ItemSearchDocument(3L, "Тент", "Туристический"));
+
+        assertEquals(List.of(3L, 1L, 2L),
+                ItemRelevance.rank(candidates, ItemRelevance.terms("тент палатка"), 3, pageable));
+    }
+}
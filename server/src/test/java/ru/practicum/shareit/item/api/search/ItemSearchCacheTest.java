@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.api.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.item.api.search.ItemSearchSort.ID;
+import static ru.practicum.shareit.item.api.search.ItemSearchSort.RELEVANCE;
+
+class ItemSearchCacheTest {
+    private final Pageable pageable = Pageable.ofSize(10);
+    private final ItemSimpleDto drill = new ItemSimpleDto(1L, "Дрель", "Ударная", true, null);
+    private final ItemSimpleDto tent = new ItemSimpleDto(2L, "Палатка", "Туристическая", true, null);
+    private final AtomicInteger searches = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(1 << 20, meterRegistry);
+    }
+
+    private List<ItemSimpleDto> search(String text, ItemSearchSort sort, Pageable pageable) {
+        return cache.get(text, sort, pageable, () -> {
+            searches.incrementAndGet();
+            return List.of(drill);
+        });
+    }
+
+    private double metric(String name, String result) {
+        return meterRegistry.get(name)
+                .tags("cache", ItemSearchCache.NAME, "result", result)
+                .functionCounter()
+                .count();
+    }
+
+    @Test
+    void get_keyedByNormalisedTextAndPage() {
+        search("дрель", ID, pageable);
+        search("ДРЕЛЬ", ID, pageable);
+        search("  Дрель,  ", RELEVANCE, pageable);
+        search("дрель", RELEVANCE, pageable);
+        search("дрель", ID, PageRequest.of(1, 10));
+
+        assertEquals(3, searches.get());
+        assertEquals(2, metric("cache.gets", "hit"));
+        assertEquals(3, metric("cache.gets", "miss"));
+    }
+
+    @Test
+    void evict_onlyMatchingTexts() {
+        search("дрель", ID, pageable);
+        search("палатка", ID, pageable);
+        search("палатка", RELEVANCE, pageable);
+
+        cache.evict(tent, new ItemSimpleDto(2L, "Палатка", "Туристическая, трёхместная", true, null));
+        search("дрель", ID, pageable);
+        search("палатка", ID, pageable);
+        search("палатка", RELEVANCE, pageable);
+
+        assertEquals(5, searches.get());
+    }
+
+    @Test
+    void get_whenItemChangedDuringSearch_pageNotKept() throws Exception {
+        ItemSimpleDto renamed = new ItemSimpleDto(1L, "Перфоратор", "Ударная", true, null);
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+
+        CompletableFuture<List<ItemSimpleDto>> stale = CompletableFuture.supplyAsync(() ->
+                cache.get("дрель", ID, pageable, () -> {
+                    searches.incrementAndGet();
+                    searching.countDown();
+                    await(changed);
+                    return List.of(drill);
+                }));
+        assertTrue(searching.await(5, TimeUnit.SECONDS));
+        cache.evict(drill, renamed);
+        changed.countDown();
+
+        assertEquals(List.of(drill), stale.get(5, TimeUnit.SECONDS));
+        search("дрель", ID, pageable);
+        assertEquals(2, searches.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void evict_newItemMatchingText() {
+        search("дрель", ID, pageable);
+        search("палатка", ID, pageable);
+
+        cache.evict(null, new ItemSimpleDto(3L, "Дрель-шуруповёрт", "", true, null));
+        search("дрель", ID, pageable);
+        search("палатка", ID, pageable);
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void evict_availabilityChangeEvictsRelevance() {
+        search("дрель", ID, pageable);
+        search("дрель", RELEVANCE, pageable);
+
+        cache.evict(tent, new ItemSimpleDto(2L, "Палатка", "Туристическая", false, null));
+        search("дрель", ID, pageable);
+        search("дрель", RELEVANCE, pageable);
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void evict_unchangedItem() {
+        search("дрель", ID, pageable);
+
+        cache.evict(drill, new ItemSimpleDto(1L, "Дрель", "Ударная", true, null));
+        search("дрель", ID, pageable);
+
+        assertEquals(1, searches.get());
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.api.service.ITest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.api.dto.ItemDto;
+import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.search.ItemSearchCache;
+import ru.practicum.shareit.item.api.search.ItemSearchEngine;
+import ru.practicum.shareit.item.api.service.ItemDetailCache;
+import ru.practicum.shareit.item.api.service.ItemQueryFanOut;
+import ru.practicum.shareit.item.api.service.ItemService;
+import ru.practicum.shareit.item.api.service.ItemServiceImpl;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.api.repository.UserRepository;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * More concurrent {@code getAll} and {@code get} callers than connections:
+ * a caller holding a connection while its queries wait for one would exhaust the pool.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fan-out;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "shareit.items.fan-out.enabled=true",
+        "shareit.items.fan-out.threads=2",
+        "shareit.items.fan-out.queue=1",
+        "shareit.items.fan-out.wait-millis=30000"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ItemServiceImpl.class, ItemQueryFanOut.class, SimpleMeterRegistry.class})
+class ItemServiceFanOutITest {
+    private static final int CALLERS = 8;
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @MockBean
+    private ItemSearchEngine itemSearchEngine;
+    @MockBean
+    private ItemSearchCache itemSearchCache;
+    @MockBean
+    private ItemDetailCache itemDetailCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private User owner;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("owner");
+        user.setEmail("owner-" + System.nanoTime() + "@mail.ru");
+        owner = userRepository.save(user);
+        for (int i = 0; i < 3; i++) {
+            Item item = new Item();
+            item.setName("Дрель " + i);
+            item.setDescription("Ударная");
+            item.setAvailable(true);
+            item.setOwner(owner);
+            items.add(itemRepository.save(item));
+        }
+    }
+
+    @Test
+    @DisplayName("GET ALL _ MORE CALLERS THAN CONNECTIONS")
+    void getAll_whenMoreCallersThanConnections() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<List<ItemDto>>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return itemService.getAll(owner.getId(), Pageable.ofSize(10), now);
+            }, runnable -> new Thread(runnable).start()));
+        }
+        start.countDown();
+
+        for (CompletableFuture<List<ItemDto>> caller : callers) {
+            assertEquals(3, caller.get(30, TimeUnit.SECONDS).size());
+        }
+    }
+
+    @Test
+    @DisplayName("GET _ MISS IN ONE CONCURRENT BATCH, MORE CALLERS THAN CONNECTIONS")
+    void get_whenMoreCallersThanConnections() throws Exception {
+        when(itemDetailCache.getDetail(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(itemDetailCache.getBookings(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        Long itemId = items.get(0).getId();
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<ItemDto>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return itemService.get(owner.getId(), itemId);
+            }, runnable -> new Thread(runnable).start()));
+        }
+        start.countDown();
+
+        for (CompletableFuture<ItemDto> caller : callers) {
+            assertEquals("Дрель 0", caller.get(30, TimeUnit.SECONDS).getName());
+        }
+        // the item, the comments, the bookings and the user check of every caller
+        assertEquals(4 * CALLERS, meterRegistry.get("items.fanout.query")
+                .tag("operation", "get")
+                .timer()
+                .count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
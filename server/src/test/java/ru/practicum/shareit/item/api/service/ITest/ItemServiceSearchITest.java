@@ -17,6 +17,7 @@ import ru.practicum.shareit.utils.InjectResources;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.item.api.search.ItemSearchSort.ID;
 
 @SpringBootTest
 @Disabled
@@ -52,8 +53,8 @@ class ItemServiceSearchITest extends InjectResources {
         Pageable pageable = Pageable.ofSize(10);
 
         //when
-        final List<ItemSimpleDto> searchTable = itemService.search(search, pageable);
-        final List<ItemSimpleDto> searchEmpty = itemService.search(empty, pageable);
+        final List<ItemSimpleDto> searchTable = itemService.search(search, ID, pageable);
+        final List<ItemSimpleDto> searchEmpty = itemService.search(empty, ID, pageable);
 
         //then
         assertEquals(3, searchTable.size());
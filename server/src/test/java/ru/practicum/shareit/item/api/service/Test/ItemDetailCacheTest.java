@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.api.service.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.api.dto.BookingItemDto;
+import ru.practicum.shareit.item.api.dto.ItemDto;
+import ru.practicum.shareit.item.api.service.ItemDetailCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemDetailCacheTest {
+    private static final long BUCKET_SECONDS = 60;
+    private final LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0, 0, 0);
+    private final AtomicInteger loads = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private ItemDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemDetailCache(100, BUCKET_SECONDS, meterRegistry);
+    }
+
+    private ItemDetailCache.Detail getDetail(long itemId) {
+        return cache.getDetail(itemId, () -> {
+            loads.incrementAndGet();
+            return new ItemDetailCache.Detail(1L, ItemDto.builder().id(itemId).build());
+        });
+    }
+
+    private ItemDetailCache.Bookings getBookings(long itemId, LocalDateTime at) {
+        return cache.getBookings(itemId, at, () -> {
+            loads.incrementAndGet();
+            return new ItemDetailCache.Bookings(BookingItemDto.builder().id(itemId).build(), null);
+        });
+    }
+
+    private double metric(String cacheName, String result) {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", cacheName, "result", result)
+                .functionCounter()
+                .count();
+    }
+
+    @Test
+    void getDetail_readThroughUntilEvicted() {
+        getDetail(1);
+        getDetail(1);
+        getDetail(2);
+        cache.evictDetail(1L);
+        getDetail(1);
+
+        assertEquals(3, loads.get());
+        assertEquals(1, metric("itemDetail", "hit"));
+        assertEquals(3, metric("itemDetail", "miss"));
+    }
+
+    @Test
+    void getBookings_keyedByTimeBucket() {
+        getBookings(1, now);
+        getBookings(1, now.plusSeconds(BUCKET_SECONDS - 1));
+        getBookings(1, now.plusSeconds(BUCKET_SECONDS));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, metric("itemBookings", "hit"));
+    }
+
+    @Test
+    void evictBookings_currentBucketOfTheItems() {
+        LocalDateTime current = LocalDateTime.now();
+        getBookings(1, current);
+        getBookings(2, current);
+        getBookings(3, current);
+        cache.evictBookings(List.of(1L, 2L));
+        getBookings(1, current);
+        getBookings(2, current);
+        getBookings(3, current);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void evictAll_detailsAndBookings() {
+        getDetail(1);
+        getBookings(1, LocalDateTime.now());
+        cache.evictAll();
+        getDetail(1);
+        getBookings(1, LocalDateTime.now());
+
+        assertEquals(4, loads.get());
+    }
+}
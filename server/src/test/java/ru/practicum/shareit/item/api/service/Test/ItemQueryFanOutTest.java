@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.api.service.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.item.api.service.ItemQueryFanOut;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemQueryFanOutTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private ItemQueryFanOut fanOut;
+
+    @AfterEach
+    void tearDown() {
+        if (fanOut != null) {
+            fanOut.shutdown();
+        }
+    }
+
+    private long count(String name) {
+        return meterRegistry.get(name).timer().count();
+    }
+
+    @Test
+    void sequential_runsInCallerThread() {
+        when(transactionManager.getTransaction(argThat(TransactionDefinition::isReadOnly)))
+                .thenAnswer(invocation -> new SimpleTransactionStatus());
+        fanOut = new ItemQueryFanOut(false, 2, 2, 1000, false, transactionManager, meterRegistry);
+        Thread caller = Thread.currentThread();
+
+        ItemQueryFanOut.Batch batch = fanOut.batch("test");
+        CompletableFuture<Thread> first = batch.submit(Thread::currentThread);
+        CompletableFuture<Thread> second = batch.submit(Thread::currentThread);
+        batch.await();
+
+        assertEquals(caller, first.join());
+        assertEquals(caller, second.join());
+        assertEquals(2, count("items.fanout.query"));
+        assertEquals(1, count("items.fanout.wall"));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void parallel_whenCallerInTransaction_runsInCallerThread() {
+        when(transactionManager.getTransaction(any()))
+                .thenAnswer(invocation -> new SimpleTransactionStatus(false));
+        fanOut = new ItemQueryFanOut(true, 2, 2, 1000, false, transactionManager, meterRegistry);
+        Thread caller = Thread.currentThread();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            ItemQueryFanOut.Batch batch = fanOut.batch("test");
+            CompletableFuture<Thread> query = batch.submit(Thread::currentThread);
+            batch.await();
+
+            assertEquals(caller, query.join());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void parallel_runsConcurrentlyInReadOnlyTransactions() {
+        when(transactionManager.getTransaction(argThat(TransactionDefinition::isReadOnly)))
+                .thenAnswer(invocation -> new SimpleTransactionStatus());
+        fanOut = new ItemQueryFanOut(true, 2, 2, 1000, false, transactionManager, meterRegistry);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        ItemQueryFanOut.Batch batch = fanOut.batch("test");
+        CompletableFuture<Boolean> first = batch.submit(() -> awaitOther(bothStarted));
+        CompletableFuture<Boolean> second = batch.submit(() -> awaitOther(bothStarted));
+        batch.await();
+
+        assertTrue(first.join());
+        assertTrue(second.join());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(1, count("items.fanout.saved"));
+        assertNotEquals(0, meterRegistry.get("executor.completed").tag("name", "itemFanOut").functionCounter().count());
+    }
+
+    @Test
+    void parallel_rethrowsFailure() {
+        when(transactionManager.getTransaction(any()))
+                .thenAnswer(invocation -> new SimpleTransactionStatus());
+        fanOut = new ItemQueryFanOut(true, 2, 2, 1000, false, transactionManager, meterRegistry);
+
+        ItemQueryFanOut.Batch batch = fanOut.batch("test");
+        batch.submit(() -> {
+            throw new NotFoundException("not found");
+        });
+
+        assertThrows(NotFoundException.class, batch::await);
+    }
+
+    @Test
+    void sequential_read_runsRequestInOneReadOnlyTransaction() {
+        when(transactionManager.getTransaction(argThat(TransactionDefinition::isReadOnly)))
+                .thenAnswer(invocation -> new SimpleTransactionStatus());
+        fanOut = new ItemQueryFanOut(false, 2, 2, 1000, false, transactionManager, meterRegistry);
+
+        assertEquals(1, fanOut.read(() -> 1));
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void parallel_read_runsRequestWithoutTransaction() {
+        fanOut = new ItemQueryFanOut(true, 2, 2, 1000, false, transactionManager, meterRegistry);
+
+        assertEquals(1, fanOut.read(() -> 1));
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void parallel_whenNoRoomInTime_thenServiceUnavailable() {
+        when(transactionManager.getTransaction(any()))
+                .thenAnswer(invocation -> new SimpleTransactionStatus());
+        fanOut = new ItemQueryFanOut(true, 1, 1, 50, false, transactionManager, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ItemQueryFanOut.Batch batch = fanOut.batch("test");
+        batch.submit(() -> await(release));
+        batch.submit(() -> true);
+
+        assertThrows(ServiceUnavailableException.class, () -> batch.submit(() -> true));
+        release.countDown();
+        batch.await();
+    }
+
+    private static boolean awaitOther(CountDownLatch latch) {
+        latch.countDown();
+        return await(latch);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -11,6 +11,8 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.api.dto.ItemMapper;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.search.ItemSearchCache;
+import ru.practicum.shareit.item.api.search.ItemSearchEngine;
 import ru.practicum.shareit.item.api.service.ItemServiceImpl;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -38,6 +40,10 @@ class ItemServiceCreateTest extends InjectResources {
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemSearchCache itemSearchCache;
 
     @Test
     @DisplayName("ITEM CREATE _ THROW IF USER NOT EXIST")
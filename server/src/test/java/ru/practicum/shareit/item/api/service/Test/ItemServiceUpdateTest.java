@@ -6,11 +6,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.api.dto.ItemDto;
 import ru.practicum.shareit.item.api.dto.ItemMapper;
 import ru.practicum.shareit.item.api.dto.ItemSimpleDto;
+import ru.practicum.shareit.item.api.repository.ItemPatch;
 import ru.practicum.shareit.item.api.repository.ItemRepository;
+import ru.practicum.shareit.item.api.search.ItemSearchCache;
+import ru.practicum.shareit.item.api.search.ItemSearchEngine;
+import ru.practicum.shareit.item.api.service.ItemDetailCache;
 import ru.practicum.shareit.item.api.service.ItemServiceImpl;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.user.api.repository.UserRepository;
@@ -21,16 +26,10 @@ import java.util.Optional;
 
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.anyBoolean;
-import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.constants.Constants.ITEM_NOT_EXISTS;
@@ -44,587 +43,163 @@ class ItemServiceUpdateTest extends InjectResources {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemSearchCache itemSearchCache;
+    @Mock
+    private ItemDetailCache itemDetailCache;
 
-    @Test
-    @DisplayName("Update impossible - Owner not found")
-    void update_whenUserNotExists_thenReturnException() {
+    private Item getItem(long ownerId) {
         User owner = random.nextObject(User.class);
-        owner.setId(10L);
+        owner.setId(ownerId);
         Item item = random.nextObject(Item.class);
         item.setOwner(owner);
-        final long wrongUserId = random.nextInt(5);
-        final long itemId = item.getId();
+        item.setRequest(null);
+        return item;
+    }
 
-        ItemSimpleDto itemDtoRequest = ItemMapper.INSTANCE.toSimpleDto(item);
-        String name = itemDtoRequest.getName();
-        String description = itemDtoRequest.getDescription();
-        Boolean available = itemDtoRequest.getAvailable();
+    private ItemSimpleDto getRequest(String name, String description, Boolean available) {
+        return ItemSimpleDto.builder()
+                .name(name)
+                .description(description)
+                .available(available).build();
+    }
 
+    @Test
+    @DisplayName("Update impossible - Owner not found")
+    void update_whenUserNotExists_thenReturnException() {
+        final long wrongUserId = 100;
+        final long itemId = 1;
+        when(itemRepository.patch(itemId, wrongUserId, "name", null, null))
+                .thenReturn(Optional.empty());
         when(userRepository.existsById(wrongUserId))
                 .thenReturn(false);
 
         assertThrows(NotFoundException.class,
-                () -> itemService.update(wrongUserId, itemId, itemDtoRequest),
+                () -> itemService.update(wrongUserId, itemId, getRequest("name", null, null)),
                 format(USER_NOT_EXISTS, wrongUserId));
 
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, never())
-                .findById(anyLong());
-
-        verify(itemRepository, never())
-                .updateNameById(name, itemId);
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(name, description, itemId);
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(name, available, itemId);
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(description, available, itemId);
-        verify(itemRepository, never())
-                .updateDescriptionById(description, itemId);
-        verify(itemRepository, never())
-                .updateAvailableById(available, itemId);
-
-        verify(itemRepository, never()).save(item);
+        verify(itemRepository, never()).existsById(anyLong());
+        verify(itemSearchEngine, never()).indexed(any());
+        verify(itemDetailCache, never()).evictDetail(anyLong());
     }
 
     @Test
     @DisplayName("Update impossible - Item not found")
     void update_whenItemNotExists_thenReturnException() {
-
-        User owner = random.nextObject(User.class);
-        owner.setId(10L);
-        Item item = random.nextObject(Item.class);
-        final long itemId = item.getId();
-
-        item.setOwner(owner);
-        final long userId = random.nextInt(5);
-
-        ItemSimpleDto itemDtoRequest = ItemMapper.INSTANCE.toSimpleDto(item);
-        String name = itemDtoRequest.getName();
-        String description = itemDtoRequest.getDescription();
-        Boolean available = itemDtoRequest.getAvailable();
-
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-
-        when(itemRepository.findById(itemId))
-                .thenReturn(Optional.empty())
-                .thenThrow(new NotFoundException(
-                        format(ITEM_NOT_EXISTS, itemId)));
-
-        assertThrows(NotFoundException.class,
-                () -> itemService.update(userId, itemId, itemDtoRequest),
-                format(ITEM_NOT_EXISTS, userId));
-
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, times(1))
-                .findById(anyLong());
-
-        verify(itemRepository, never())
-                .updateNameById(name, itemId);
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(name, description, itemId);
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(name, available, itemId);
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(description, available, itemId);
-        verify(itemRepository, never())
-                .updateDescriptionById(description, itemId);
-        verify(itemRepository, never())
-                .updateAvailableById(available, itemId);
-
-        verify(itemRepository, never()).save(item);
-
-    }
-
-    @Test
-    @DisplayName("Update Name + Description + Available")
-    void update() {
-        // given
-        User owner = random.nextObject(User.class);
-        final long userId = owner.getId();
-        Item entity = random.nextObject(Item.class);
-        final long itemId = entity.getId();
-        entity.setAvailable(false);
-        entity.setOwner(owner);
-
-        final String setName = "setName";
-        final String setDescription = "setDescription";
-        final boolean setAvailable = true;
-        Item updateEntity = Item.builder()
-                .id(itemId)
-                .name(setName)
-                .description(setDescription)
-                .available(setAvailable)
-                .owner(owner)
-                .request(null).build();
-
-        ItemSimpleDto requestDto = ItemMapper.INSTANCE.toSimpleDto(updateEntity);
-
-        // when
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-
-        when(itemRepository.findById(itemId))
-                .thenReturn(Optional.of(entity));
-
-        when(itemRepository.notExistsByIdAndOwner_Id(itemId, userId))
-                .thenReturn(false);
-
-        when(itemRepository.save(any(Item.class)))
-                .thenReturn(updateEntity);
-
-        ItemDto response = itemService.update(userId, itemId, requestDto);
-
-        // then
-        assertEquals(setName, response.getName());
-        assertEquals(setDescription, response.getDescription());
-        assertEquals(setAvailable, requestDto.getAvailable());
-        assertNotEquals(entity.getName(), response.getName());
-        assertNotEquals(entity.getDescription(), response.getDescription());
-        assertNotEquals(entity.isAvailable(), response.getAvailable());
-
-        assertNotNull(response.getName());
-        assertNotNull(response.getDescription());
-        assertNotNull(response.getAvailable());
-
-        verify(userRepository, times(1))
-                .existsById(userId);
-        verify(itemRepository, times(1))
-                .notExistsByIdAndOwner_Id(itemId, userId);
-        verify(itemRepository, times(1))
-                .findById(itemId);
-
-        verify(itemRepository, never())
-                .updateNameById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(anyString(), anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateAvailableById(anyBoolean(), anyLong());
-        verify(itemRepository, times(1))
-                .save(any(Item.class));
-    }
-
-    @Test
-    @DisplayName("Update Name + Description, not Available")
-    void update_whenEditNameDescription_thenReturnDto() {
-        // given
-        Item entity = items.get(0);
         final long userId = 1;
-        final long itemId = entity.getId();
-
-        final String setName = "setName";
-        final String setDescription = "setDescription";
-
-        ItemSimpleDto requestDto = ItemMapper.INSTANCE.toSimpleDto(entity);
-
-        requestDto.setName(setName);
-        requestDto.setDescription(setDescription);
-        requestDto.setAvailable(null);
-
-        String name = requestDto.getName();
-        String description = requestDto.getDescription();
-
-
+        final long itemId = 100;
+        when(itemRepository.patch(itemId, userId, "name", null, null))
+                .thenReturn(Optional.empty());
         when(userRepository.existsById(userId))
                 .thenReturn(true);
-
-        when(itemRepository.findById(itemId))
-                .thenReturn(Optional.of(entity));
-
-        when(itemRepository.notExistsByIdAndOwner_Id(itemId, userId))
+        when(itemRepository.existsById(itemId))
                 .thenReturn(false);
 
-        doNothing()
-                .when(itemRepository)
-                .updateNameAndDescriptionById(
-                        anyString(),
-                        anyString(),
-                        anyLong());
-        // when
-        ItemDto response = itemService.update(userId, itemId, requestDto);
-        // then
-        assertNotEquals(response.getAvailable(), requestDto.getAvailable());
-        assertEquals(name, response.getName());
-        assertEquals(description, response.getDescription());
-        assertEquals(entity.isAvailable(), response.getAvailable());
-
-        assertNotNull(response.getName());
-        assertNotNull(response.getDescription());
-        assertNotNull(response.getAvailable());
-
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, times(1))
-                .findById(anyLong());
-        verify(itemRepository, times(1))
-                .notExistsByIdAndOwner_Id(itemId, userId);
+        assertThrows(NotFoundException.class,
+                () -> itemService.update(userId, itemId, getRequest("name", null, null)),
+                format(ITEM_NOT_EXISTS, itemId));
 
-        verify(itemRepository, never())
-                .updateNameById(anyString(), anyLong());
-        verify(itemRepository, times(1))
-                .updateNameAndDescriptionById(anyString(), anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateAvailableById(anyBoolean(), anyLong());
-        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemSearchEngine, never()).indexed(any());
     }
 
     @Test
-    @DisplayName("Update Name + Available , not Description")
-    void update_whenEditNameAvailable_thenReturnItemDto() {
-        // given
-        Item entity = itemStorage.get(1L);
+    @DisplayName("Update impossible - not the Owner")
+    void update_whenNotOwner_thenReturnException() {
         final long userId = 1;
-        final long itemId = entity.getId();
-
-        final String setName = "setName";
-        final String setDescription = "";
-        final Boolean setAvailable = !entity.isAvailable();
-
-        ItemSimpleDto requestDto = ItemMapper.INSTANCE.toSimpleDto(entity);
-
-        requestDto.setName(setName);
-        requestDto.setDescription(setDescription);
-        requestDto.setAvailable(setAvailable);
-
-        String name = requestDto.getName();
-        Boolean available = requestDto.getAvailable();
-
-
+        final long itemId = 1;
+        when(itemRepository.patch(itemId, userId, null, null, false))
+                .thenReturn(Optional.empty());
         when(userRepository.existsById(userId))
                 .thenReturn(true);
+        when(itemRepository.existsById(itemId))
+                .thenReturn(true);
 
-        when(itemRepository.findById(itemId))
-                .thenReturn(Optional.of(entity));
-
-        when(itemRepository.notExistsByIdAndOwner_Id(itemId, userId))
-                .thenReturn(false);
-
-        doNothing()
-                .when(itemRepository)
-                .updateNameAndAvailableById(
-                        anyString(),
-                        anyBoolean(),
-                        anyLong());
-        // when
-        ItemDto response = itemService.update(userId, itemId, requestDto);
-        // then
-        assertNotEquals(response.getDescription(), requestDto.getDescription());
-        assertEquals(name, response.getName());
-        assertEquals(entity.getDescription(), response.getDescription());
-        assertEquals(available, response.getAvailable());
-
-        assertNotNull(response.getName());
-        assertNotNull(response.getDescription());
-        assertNotNull(response.getAvailable());
-
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, times(1))
-                .findById(anyLong());
-        verify(itemRepository, times(1))
-                .notExistsByIdAndOwner_Id(itemId, userId);
+        assertThrows(BadRequestException.class,
+                () -> itemService.update(userId, itemId, getRequest(null, null, false)));
 
-        verify(itemRepository, never())
-                .updateNameById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(anyString(), anyString(), anyLong());
-        verify(itemRepository, times(1))
-                .updateNameAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateAvailableById(anyBoolean(), anyLong());
-        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemSearchCache, never()).evict(any(), any());
     }
 
     @Test
-    @DisplayName("Update Name , not Description + Available")
-    void update_whenEditName_thenReturnItemDto() {
-        // given
-        Item entity = itemStorage.get(1L);
+    @DisplayName("Update Name + Description + Available in one statement")
+    void update() {
         final long userId = 1;
+        Item entity = getItem(userId);
+        entity.setAvailable(false);
         final long itemId = entity.getId();
-        final String setName = "setName";
-        final String setDescription = "";
+        ItemSimpleDto before = ItemMapper.INSTANCE.toSimpleDto(entity);
+        ItemSimpleDto after = new ItemSimpleDto(itemId, "setName", "setDescription", true, null);
+        when(itemRepository.patch(itemId, userId, "setName", "setDescription", true))
+                .thenReturn(Optional.of(new ItemPatch(before, after)));
 
-        ItemSimpleDto requestDto = ItemMapper.INSTANCE.toSimpleDto(entity);
-        requestDto.setName(setName);
-        requestDto.setDescription(setDescription);
-        requestDto.setAvailable(null);
+        ItemDto response = itemService.update(userId, itemId,
+                getRequest("setName", "setDescription", true));
 
-        String name = requestDto.getName();
+        assertEquals(itemId, response.getId());
+        assertEquals("setName", response.getName());
+        assertEquals("setDescription", response.getDescription());
+        assertEquals(true, response.getAvailable());
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-
-        when(itemRepository.findById(itemId))
-                .thenReturn(Optional.of(entity));
-
-        when(itemRepository.notExistsByIdAndOwner_Id(itemId, userId))
-                .thenReturn(false);
-
-        doNothing()
-                .when(itemRepository)
-                .updateNameById(
-                        anyString(),
-                        anyLong());
-        // when
-        ItemDto response = itemService.update(userId, itemId, requestDto);
-        // then
-        assertNotEquals(response.getDescription(), requestDto.getDescription());
-        assertNotEquals(response.getAvailable(), requestDto.getAvailable());
-        assertEquals(name, response.getName());
-        assertEquals(entity.getDescription(), response.getDescription());
-        assertEquals(entity.isAvailable(), response.getAvailable());
-
-        assertNotNull(response.getName());
-        assertNotNull(response.getDescription());
-        assertNotNull(response.getAvailable());
-
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, times(1))
-                .findById(anyLong());
-        verify(itemRepository, times(1))
-                .notExistsByIdAndOwner_Id(itemId, userId);
-
-        verify(itemRepository, times(1))
-                .updateNameById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(anyString(), anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateAvailableById(anyBoolean(), anyLong());
+        verify(userRepository, never()).existsById(anyLong());
+        verify(itemRepository, never()).findById(anyLong());
         verify(itemRepository, never()).save(any(Item.class));
+        verify(itemSearchEngine).indexed(after);
+        verify(itemSearchCache).evict(before, after);
+        verify(itemDetailCache).evictDetail(itemId);
     }
 
     @Test
-    @DisplayName("Update Description + Available, not Name")
-    void update_whenEditDescriptionAvailable_thenReturnDto() {
-        // given
-        Item entity = itemStorage.get(1L);
+    @DisplayName("Blank Name and empty Description are not changed")
+    void update_whenBlankNameEmptyDescription_thenOnlyAvailable() {
         final long userId = 1;
+        Item entity = getItem(userId);
+        entity.setAvailable(true);
         final long itemId = entity.getId();
+        ItemSimpleDto before = ItemMapper.INSTANCE.toSimpleDto(entity);
+        ItemSimpleDto after = ItemMapper.INSTANCE.toSimpleDto(entity);
+        after.setAvailable(false);
+        when(itemRepository.patch(itemId, userId, null, null, false))
+                .thenReturn(Optional.of(new ItemPatch(before, after)));
 
-        final String setName = "";
-        final String setDescription = "setDescription";
-        final Boolean setAvailable = !entity.isAvailable();
-
-        ItemSimpleDto requestDto = ItemMapper.INSTANCE.toSimpleDto(entity);
-
-        requestDto.setName(setName);
-        requestDto.setDescription(setDescription);
-        requestDto.setAvailable(setAvailable);
-
-        String description = requestDto.getDescription();
-        Boolean available = requestDto.getAvailable();
-
-
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-
-        when(itemRepository.findById(itemId))
-                .thenReturn(Optional.of(entity));
+        ItemDto response = itemService.update(userId, itemId, getRequest(" ", "", false));
 
-        when(itemRepository.notExistsByIdAndOwner_Id(itemId, userId))
-                .thenReturn(false);
-
-        doNothing()
-                .when(itemRepository)
-                .updateDescriptionAndAvailableById(
-                        anyString(),
-                        anyBoolean(),
-                        anyLong());
-        // when
-        ItemDto response = itemService.update(userId, itemId, requestDto);
-        // then
-        assertNotEquals(response.getName(), requestDto.getName());
         assertEquals(entity.getName(), response.getName());
-        assertEquals(description, response.getDescription());
-        assertEquals(available, response.getAvailable());
-
-        assertNotNull(response.getName());
-        assertNotNull(response.getDescription());
-        assertNotNull(response.getAvailable());
-
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, times(1))
-                .findById(anyLong());
-        verify(itemRepository, times(1))
-                .notExistsByIdAndOwner_Id(itemId, userId);
-
-        verify(itemRepository, never())
-                .updateNameById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(anyString(), anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, times(1))
-                .updateDescriptionAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateAvailableById(anyBoolean(), anyLong());
-        verify(itemRepository, never()).save(any(Item.class));
+        assertEquals(entity.getDescription(), response.getDescription());
+        assertEquals(false, response.getAvailable());
     }
 
     @Test
-    @DisplayName("Update Description, not Name + Available")
-    void update_whenEditDescription_thenReturnDto() {
-        // given
-        Item entity = itemStorage.get(1L);
+    @DisplayName("Nothing to update - return the Item")
+    void update_whenNoFields_thenReturnItem() {
         final long userId = 1;
+        Item entity = getItem(userId);
         final long itemId = entity.getId();
-
-        final String setName = "";
-        final String setDescription = "setDescription";
-
-        ItemSimpleDto requestDto = ItemMapper.INSTANCE.toSimpleDto(entity);
-
-        requestDto.setName(setName);
-        requestDto.setDescription(setDescription);
-        requestDto.setAvailable(null);
-
-        String description = requestDto.getDescription();
-
         when(userRepository.existsById(userId))
                 .thenReturn(true);
-
         when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(entity));
 
-        when(itemRepository.notExistsByIdAndOwner_Id(itemId, userId))
-                .thenReturn(false);
+        ItemDto response = itemService.update(userId, itemId, getRequest(null, null, null));
 
-        doNothing()
-                .when(itemRepository)
-                .updateDescriptionById(
-                        anyString(),
-                        anyLong());
-        // when
-        ItemDto response = itemService.update(userId, itemId, requestDto);
-        // then
-        assertNotEquals(response.getName(), requestDto.getName());
-        assertNotEquals(response.getAvailable(), requestDto.getAvailable());
         assertEquals(entity.getName(), response.getName());
-        assertEquals(description, response.getDescription());
-        assertEquals(entity.isAvailable(), response.getAvailable());
-
-        assertNotNull(response.getName());
-        assertNotNull(response.getDescription());
-        assertNotNull(response.getAvailable());
-
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, times(1))
-                .findById(anyLong());
-        verify(itemRepository, times(1))
-                .notExistsByIdAndOwner_Id(itemId, userId);
-
-        verify(itemRepository, never())
-                .updateNameById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(anyString(), anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, times(1))
-                .updateDescriptionById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateAvailableById(anyBoolean(), anyLong());
-        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemRepository, never()).patch(anyLong(), anyLong(), any(), any(), any());
+        verify(itemSearchEngine, never()).indexed(any());
     }
 
     @Test
-    @DisplayName("Update Available, not Name + Description")
-    void update_whenEditAvailable_thenReturnDto() {
-        // given
-        Item entity = itemStorage.get(1L);
+    @DisplayName("Nothing to update - not the Owner")
+    void update_whenNoFieldsNotOwner_thenReturnException() {
         final long userId = 1;
+        Item entity = getItem(userId + 1);
         final long itemId = entity.getId();
-
-        final String setName = "";
-        final String setDescription = "";
-        final Boolean setAvailable = !entity.isAvailable();
-
-        ItemSimpleDto requestDto = ItemMapper.INSTANCE.toSimpleDto(entity);
-
-        requestDto.setName(setName);
-        requestDto.setDescription(setDescription);
-        requestDto.setAvailable(setAvailable);
-
-        Boolean available = requestDto.getAvailable();
-
         when(userRepository.existsById(userId))
                 .thenReturn(true);
-
         when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(entity));
 
-        when(itemRepository.notExistsByIdAndOwner_Id(itemId, userId))
-                .thenReturn(false);
-
-        doNothing()
-                .when(itemRepository)
-                .updateAvailableById(
-                        anyBoolean(),
-                        anyLong());
-        // when
-        ItemDto response = itemService.update(userId, itemId, requestDto);
-        // then
-        assertNotEquals(response.getName(), requestDto.getName());
-        assertNotEquals(response.getDescription(), requestDto.getDescription());
-        assertEquals(entity.getName(), response.getName());
-        assertEquals(entity.getDescription(), response.getDescription());
-        assertEquals(available, response.getAvailable());
-
-        assertNotNull(response.getName());
-        assertNotNull(response.getDescription());
-        assertNotNull(response.getAvailable());
-
-        verify(userRepository, times(1))
-                .existsById(anyLong());
-        verify(itemRepository, times(1))
-                .findById(anyLong());
-        verify(itemRepository, times(1))
-                .notExistsByIdAndOwner_Id(itemId, userId);
-
-        verify(itemRepository, never())
-                .updateNameById(anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(anyString(), anyString(), anyLong());
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(anyString(), anyBoolean(), anyLong());
-        verify(itemRepository, never())
-                .updateDescriptionById(anyString(), anyLong());
-        verify(itemRepository, times(1))
-                .updateAvailableById(anyBoolean(), anyLong());
-        verify(itemRepository, never()).save(any(Item.class));
+        assertThrows(BadRequestException.class,
+                () -> itemService.update(userId, itemId, getRequest(null, "", null)));
     }
-}
\ No newline at end of file
+}
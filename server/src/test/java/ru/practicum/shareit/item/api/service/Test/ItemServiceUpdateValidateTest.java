@@ -43,10 +43,6 @@ class ItemServiceUpdateValidateTest extends InjectResources {
         final long userId = 100;
         final long itemId = 1;
 
-        String name = itemRequest.getName();
-        String description = itemRequest.getDescription();
-        boolean available = itemRequest.isAvailable();
-
         itemDtoRequest = ItemSimpleDto.builder()
                 .id(itemRequest.getId())
                 .name(itemRequest.getName())
@@ -68,18 +64,6 @@ class ItemServiceUpdateValidateTest extends InjectResources {
         verify(itemRepository, never())
                 .findById(anyLong());
 
-        verify(itemRepository, never())
-                .updateNameById(name, itemId);
-        verify(itemRepository, never())
-                .updateNameAndDescriptionById(name, description, itemId);
-        verify(itemRepository, never())
-                .updateNameAndAvailableById(name, available, itemId);
-        verify(itemRepository, never())
-                .updateDescriptionAndAvailableById(description, available, itemId);
-        verify(itemRepository, never())
-                .updateDescriptionById(description, itemId);
-        verify(itemRepository, never())
-                .updateAvailableById(available, itemId);
         verify(itemRepository, never())
                 .save(itemRequest);
     }
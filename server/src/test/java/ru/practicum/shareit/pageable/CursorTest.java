@@ -0,0 +1,25 @@
+package ru.practicum.shareit.pageable;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTest {
+
+    @Test
+    void encode_thenDecode() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2000, 1, 1, 12, 0, 0, 123), 42L);
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_whenIncorrect_thenReturnThrow() {
+        assertThrows(BadRequestException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> Cursor.decode("MjAwMA"));
+    }
+}